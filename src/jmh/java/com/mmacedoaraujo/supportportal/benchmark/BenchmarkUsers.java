@@ -0,0 +1,30 @@
+package com.mmacedoaraujo.supportportal.benchmark;
+
+import com.mmacedoaraujo.supportportal.domain.User;
+import com.mmacedoaraujo.supportportal.enumeration.Role;
+
+import java.util.Date;
+
+final class BenchmarkUsers {
+
+    private BenchmarkUsers() {
+    }
+
+    static User user(String username, Role role) {
+        return User.builder()
+                .id(1L)
+                .userId("1234567890")
+                .firstName("Bench")
+                .lastName("Mark")
+                .username(username)
+                .email(username + "@supportportal.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3u1Qy6bJ8Kj0G9w2Xw8b1eK")
+                .joinDate(new Date())
+                .lastLoginDate(new Date())
+                .role(role.name())
+                .authorities(role.getAuthorities())
+                .isEnabled(true)
+                .isNonLocked(true)
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.mmacedoaraujo.supportportal.benchmark;
+
+import com.mmacedoaraujo.supportportal.domain.HttpResponse;
+import com.mmacedoaraujo.supportportal.exception.ExceptionHandling;
+import com.mmacedoaraujo.supportportal.exception.domain.UsernameExistException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static com.mmacedoaraujo.supportportal.constant.UserServiceImplConstant.USERNAME_ALREADY_EXISTS;
+
+// throw from `depth` frames down and turn the exception into the response body, as a rejected /register does.
+// The baseline is the previous path: an exception that fills in its stack trace and a freshly built HttpResponse
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ErrorPathBenchmark {
+
+    @Param({"20", "120"})
+    private int depth;
+
+    private ExceptionHandling exceptionHandling;
+
+    @Setup
+    public void setUp() {
+        exceptionHandling = new ExceptionHandling();
+    }
+
+    @Benchmark
+    public ResponseEntity<HttpResponse> stacklessAndCachedBody() {
+        try {
+            throwStackless(depth);
+            return null;
+        } catch (UsernameExistException e) {
+            return exceptionHandling.usernameExistException(e);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<HttpResponse> stackTraceAndNewBody() {
+        try {
+            throwWithStackTrace(depth);
+            return null;
+        } catch (StackTraceUsernameExistException e) {
+            return new ResponseEntity<>(new HttpResponse(HttpStatus.BAD_REQUEST.value(), new Date(), HttpStatus.BAD_REQUEST,
+                    HttpStatus.BAD_REQUEST.getReasonPhrase(), e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private static void throwStackless(int depth) throws UsernameExistException {
+        if (depth == 0) {
+            throw new UsernameExistException(USERNAME_ALREADY_EXISTS);
+        }
+        throwStackless(depth - 1);
+    }
+
+    private static void throwWithStackTrace(int depth) throws StackTraceUsernameExistException {
+        if (depth == 0) {
+            throw new StackTraceUsernameExistException(USERNAME_ALREADY_EXISTS);
+        }
+        throwWithStackTrace(depth - 1);
+    }
+
+    private static class StackTraceUsernameExistException extends Exception {
+        private StackTraceUsernameExistException(String message) {
+            super(message);
+        }
+    }
+}
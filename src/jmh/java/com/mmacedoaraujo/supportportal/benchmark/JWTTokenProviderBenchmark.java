@@ -0,0 +1,50 @@
+package com.mmacedoaraujo.supportportal.benchmark;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.mmacedoaraujo.supportportal.domain.UserPrincipal;
+import com.mmacedoaraujo.supportportal.utility.JWTTokenProvider;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.mmacedoaraujo.supportportal.enumeration.Role.ROLE_SUPER_ADMIN;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JWTTokenProviderBenchmark {
+
+    private JWTTokenProvider jwtTokenProvider;
+    private UserPrincipal userPrincipal;
+    private MockHttpServletRequest request;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = new JWTTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "secret", "benchmark-secret");
+        userPrincipal = new UserPrincipal(BenchmarkUsers.user("benchmark", ROLE_SUPER_ADMIN));
+        request = new MockHttpServletRequest();
+        token = jwtTokenProvider.generateJwtToken(userPrincipal);
+    }
+
+    @Benchmark
+    public String generateJwtToken() {
+        return jwtTokenProvider.generateJwtToken(userPrincipal);
+    }
+
+    // the same calls JWTAuthorizationFilter makes for a request carrying a bearer token
+    @Benchmark
+    public Authentication verifyAndDecode() {
+        DecodedJWT decodedJWT = jwtTokenProvider.verify(token);
+        List<GrantedAuthority> authorities = jwtTokenProvider.getAuthorities(decodedJWT);
+        return jwtTokenProvider.getAuthentication(decodedJWT.getSubject(), authorities, request);
+    }
+}
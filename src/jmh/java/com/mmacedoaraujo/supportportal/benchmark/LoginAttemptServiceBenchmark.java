@@ -0,0 +1,56 @@
+package com.mmacedoaraujo.supportportal.benchmark;
+
+import com.mmacedoaraujo.supportportal.service.LoginAttemptService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// failures, checks and evictions from 8 threads against one shared cache, spread over a small set of usernames
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LoginAttemptServiceBenchmark {
+
+    private static final int USERNAME_COUNT = 64;
+
+    private LoginAttemptService loginAttemptService;
+    private String[] usernames;
+
+    @Setup
+    public void setUp() {
+        loginAttemptService = new LoginAttemptService(null, new SimpleMeterRegistry());
+        usernames = new String[USERNAME_COUNT];
+        for (int i = 0; i < USERNAME_COUNT; i++) {
+            usernames[i] = "user" + i;
+        }
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(5)
+    public boolean hasExceededMaxAttempt() {
+        return loginAttemptService.hasExceededMaxAttempt(randomUsername());
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(2)
+    public void addUserToLoginAttemptCache() {
+        loginAttemptService.addUserToLoginAttemptCache(randomUsername());
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public void evictUserFromLoginAttemptCache() {
+        loginAttemptService.evictUserFromLoginAttemptCache(randomUsername());
+    }
+
+    private String randomUsername() {
+        return usernames[ThreadLocalRandom.current().nextInt(USERNAME_COUNT)];
+    }
+}
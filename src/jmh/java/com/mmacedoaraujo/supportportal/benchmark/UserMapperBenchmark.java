@@ -0,0 +1,38 @@
+package com.mmacedoaraujo.supportportal.benchmark;
+
+import com.mmacedoaraujo.supportportal.domain.User;
+import com.mmacedoaraujo.supportportal.mapper.UserMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.mmacedoaraujo.supportportal.enumeration.Role.ROLE_HR;
+import static com.mmacedoaraujo.supportportal.enumeration.Role.ROLE_USER;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UserMapperBenchmark {
+
+    private User newInformationUser;
+    private User userToUpdate;
+
+    @Setup
+    public void setUp() {
+        newInformationUser = new User();
+        newInformationUser.setFirstName("Updated");
+        newInformationUser.setLastName("User");
+        newInformationUser.setUsername("updated");
+        newInformationUser.setEmail("updated@supportportal.com");
+        newInformationUser.setRole(ROLE_HR.name());
+        newInformationUser.setAuthorities(ROLE_HR.getAuthorities());
+        userToUpdate = BenchmarkUsers.user("benchmark", ROLE_USER);
+    }
+
+    @Benchmark
+    public User updateUser() {
+        return UserMapper.INSTANCE.updateUser(newInformationUser, userToUpdate);
+    }
+}
@@ -0,0 +1,30 @@
+package com.mmacedoaraujo.supportportal.benchmark;
+
+import com.mmacedoaraujo.supportportal.domain.UserPrincipal;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static com.mmacedoaraujo.supportportal.enumeration.Role.ROLE_SUPER_ADMIN;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UserPrincipalBenchmark {
+
+    private UserPrincipal userPrincipal;
+
+    @Setup
+    public void setUp() {
+        userPrincipal = new UserPrincipal(BenchmarkUsers.user("benchmark", ROLE_SUPER_ADMIN));
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return userPrincipal.getAuthorities();
+    }
+}
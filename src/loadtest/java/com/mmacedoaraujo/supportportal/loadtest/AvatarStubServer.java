@@ -0,0 +1,51 @@
+package com.mmacedoaraujo.supportportal.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.mmacedoaraujo.supportportal.loadtest.LoadTestConstant.AVATAR_STUB_PATH;
+import static com.mmacedoaraujo.supportportal.loadtest.LoadTestConstant.AVATAR_STUB_STARTED;
+
+// stands in for dicebear.com on its own port, so avatar fetches leave the servlet container like the real call does
+@Slf4j
+public class AvatarStubServer {
+
+    private static final int AVATAR_SIZE = 120;
+
+    private final int port;
+    private final int threads;
+    private final byte[] avatar = LoadTestImages.jpeg(0, AVATAR_SIZE);
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public AvatarStubServer(int port, int threads) {
+        this.port = port;
+        this.threads = threads;
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext(AVATAR_STUB_PATH, exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "image/jpeg");
+            exchange.sendResponseHeaders(200, avatar.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(avatar);
+            }
+        });
+        server.start();
+        log.info(AVATAR_STUB_STARTED + port);
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
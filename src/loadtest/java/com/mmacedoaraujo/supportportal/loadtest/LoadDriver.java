@@ -0,0 +1,227 @@
+package com.mmacedoaraujo.supportportal.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.mmacedoaraujo.supportportal.constant.FileConstant.*;
+import static com.mmacedoaraujo.supportportal.constant.SecurityConstant.JWT_TOKEN_HEADER;
+import static com.mmacedoaraujo.supportportal.constant.SecurityConstant.TOKEN_PREFIX;
+import static com.mmacedoaraujo.supportportal.loadtest.LoadTestConstant.*;
+
+// Open-loop load driver: requests are issued on a fixed schedule at the target rate no matter how fast the server answers,
+// and latency is measured from the scheduled start, so time spent queued behind a slow server is part of the result
+// instead of silently lowering the offered load.
+public class LoadDriver {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int IMAGE_SIZE = 256;
+    private static final Integer[] REQUESTED_IMAGE_SIZES = {null, 32, 64, 256};
+
+    private final LoadDriverSettings settings;
+    private final RestTemplate restTemplate;
+    private final List<String> usernames = new ArrayList<>();
+    private final List<String> tokens = new ArrayList<>();
+    private final List<String> imageUrls = new ArrayList<>();
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final AtomicLong registrations = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    public LoadDriver(LoadDriverSettings settings) {
+        this.settings = settings;
+        // HttpURLConnection keeps at most http.maxConnections idle connections per host, the default of 5 would make
+        // most workers reconnect on every request
+        System.setProperty("http.maxConnections", Integer.toString(settings.getConnections()));
+        this.restTemplate = new RestTemplate();
+        this.restTemplate.setErrorHandler(new DefaultResponseErrorHandler() {
+            @Override
+            public boolean hasError(ClientHttpResponse response) {
+                return false;
+            }
+        });
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        // without Spring Boot's logging setup the client logs every request at debug, which throttles the driver itself
+        LoggingSystem loggingSystem = LoggingSystem.get(LoadDriver.class.getClassLoader());
+        loggingSystem.beforeInitialize();
+        loggingSystem.setLogLevel(LoggingSystem.ROOT_LOGGER_NAME, LogLevel.WARN);
+        new LoadDriver(new LoadDriverSettings()).run();
+    }
+
+    public void run() throws InterruptedException {
+        prepare();
+        System.out.printf("Offering %.1f req/s for %ds after %ds of warm-up, mix %s%n",
+                settings.getRate(), settings.getDurationSeconds(), settings.getWarmupSeconds(), settings.getMix());
+        ExecutorService workers = Executors.newFixedThreadPool(settings.getConnections());
+        long interval = (long) (NANOS_PER_SECOND / settings.getRate());
+        long start = System.nanoTime();
+        long measureStart = start + settings.getWarmupSeconds() * NANOS_PER_SECOND;
+        long end = measureStart + settings.getDurationSeconds() * NANOS_PER_SECOND;
+        for (long scheduled = start; scheduled < end; scheduled += interval) {
+            long delay = scheduled - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            Operation operation = settings.nextOperation(ThreadLocalRandom.current());
+            long scheduledStart = scheduled;
+            workers.execute(() -> execute(operation, scheduledStart, scheduledStart >= measureStart));
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+        report();
+    }
+
+    // logs every seeded user in and gives each a distinct profile image to serve
+    private void prepare() {
+        for (int i = 0; i < settings.getUsers(); i++) {
+            String username = SEEDED_USERNAME_PREFIX + i;
+            ResponseEntity<byte[]> login = login(username);
+            String token = login.getHeaders().getFirst(JWT_TOKEN_HEADER);
+            if (!login.getStatusCode().is2xxSuccessful() || token == null) {
+                throw new IllegalStateException("Cannot log in seeded user " + username + ": " + login.getStatusCode()
+                        + ", is the application running with -Ploadtest?");
+            }
+            usernames.add(username);
+            tokens.add(token);
+            HttpHeaders headers = authorized(token);
+            headers.setContentType(MediaType.IMAGE_JPEG);
+            restTemplate.exchange(settings.getUrl() + "/users/updateProfileImage/" + username, HttpMethod.PUT,
+                    new HttpEntity<>(LoadTestImages.jpeg(i + 1, IMAGE_SIZE), headers), byte[].class);
+        }
+        List<Map<String, Object>> users = restTemplate.exchange(settings.getUrl() + "/users/list", HttpMethod.GET,
+                new HttpEntity<>(authorized(tokens.get(0))), new ParameterizedTypeReference<List<Map<String, Object>>>() {
+                }).getBody();
+        for (Map<String, Object> user : users) {
+            Object profileImageUrl = user.get("profileImageUrl");
+            if (usernames.contains(user.get("username")) && profileImageUrl != null && profileImageUrl.toString().contains(BLOB_IMAGE_PATH)) {
+                imageUrls.add(profileImageUrl.toString());
+            }
+        }
+        if (imageUrls.isEmpty()) {
+            throw new IllegalStateException("No profile images were stored for the seeded users");
+        }
+    }
+
+    private void execute(Operation operation, long scheduledStart, boolean measured) {
+        boolean succeeded;
+        try {
+            succeeded = send(operation, ThreadLocalRandom.current()).getStatusCode().is2xxSuccessful();
+        } catch (RestClientException e) {
+            succeeded = false;
+        }
+        long latency = System.nanoTime() - scheduledStart;
+        if (measured) {
+            recorders.get(operation).recordValue(latency);
+            if (!succeeded) {
+                errors.get(operation).increment();
+            }
+        }
+    }
+
+    private ResponseEntity<byte[]> send(Operation operation, ThreadLocalRandom random) {
+        int user = random.nextInt(usernames.size());
+        switch (operation) {
+            case LOGIN:
+                return login(usernames.get(user));
+            case LIST:
+                return get(settings.getUrl() + "/users/list", tokens.get(user));
+            case FIND:
+                return get(settings.getUrl() + "/users/find/" + usernames.get(random.nextInt(usernames.size())), tokens.get(user));
+            case IMAGE:
+                Integer size = REQUESTED_IMAGE_SIZES[random.nextInt(REQUESTED_IMAGE_SIZES.length)];
+                String imageUrl = imageUrls.get(random.nextInt(imageUrls.size()));
+                return get(size == null ? imageUrl : imageUrl + "?size=" + size, tokens.get(user));
+            case AVATAR:
+                return get(settings.getUrl() + DEFAULT_USER_IMAGE_PATH + usernames.get(user), tokens.get(user));
+            case REGISTER:
+                return register();
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    private ResponseEntity<byte[]> login(String username) {
+        Map<String, String> body = new HashMap<>();
+        body.put("username", username);
+        body.put("password", settings.getPassword());
+        return restTemplate.postForEntity(settings.getUrl() + "/users/login", body, byte[].class);
+    }
+
+    private ResponseEntity<byte[]> register() {
+        String username = REGISTERED_USERNAME_PREFIX + runId + registrations.incrementAndGet();
+        Map<String, String> body = new HashMap<>();
+        body.put("firstName", "Registered");
+        body.put("lastName", "User");
+        body.put("username", username);
+        body.put("email", username + SEEDED_EMAIL_DOMAIN);
+        return restTemplate.postForEntity(settings.getUrl() + "/users/register", body, byte[].class);
+    }
+
+    private ResponseEntity<byte[]> get(String url, String token) {
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(authorized(token)), byte[].class);
+    }
+
+    private HttpHeaders authorized(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, TOKEN_PREFIX + token);
+        return headers;
+    }
+
+    private void report() {
+        System.out.printf("%n%-10s %9s %7s %10s %10s %10s %10s %10s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (Operation operation : settings.getMix().keySet()) {
+            Histogram histogram = recorders.get(operation).getIntervalHistogram();
+            long operationErrors = errors.get(operation).sum();
+            printRow(operation.name().toLowerCase(), histogram, operationErrors);
+            total.add(histogram);
+            totalErrors += operationErrors;
+        }
+        printRow("total", total, totalErrors);
+    }
+
+    private void printRow(String name, Histogram histogram, long errorCount) {
+        System.out.printf("%-10s %9d %7d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                name,
+                histogram.getTotalCount(),
+                errorCount,
+                (double) histogram.getTotalCount() / settings.getDurationSeconds(),
+                histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                histogram.getMaxValue() / NANOS_PER_MILLI);
+    }
+}
@@ -0,0 +1,53 @@
+package com.mmacedoaraujo.supportportal.loadtest;
+
+import lombok.Getter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+@Getter
+public class LoadDriverSettings {
+
+    public static final String DEFAULT_MIX = "login:10,list:10,find:35,image:40,avatar:0,register:5";
+
+    private final String url = System.getProperty("loadtest.url", "http://localhost:8081");
+    private final double rate = Double.parseDouble(System.getProperty("loadtest.rate", "100"));
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 10);
+    private final int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 60);
+    private final int connections = Integer.getInteger("loadtest.connections", 64);
+    private final int users = Integer.getInteger("loadtest.users", 50);
+    private final String password = System.getProperty("loadtest.password", "loadtest");
+    private final Map<Operation, Integer> mix = parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX));
+    private final int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+
+    public Operation nextOperation(Random random) {
+        int pick = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty request mix");
+    }
+
+    // "login:10,find:40,..." into per operation weights; operations left out are not sent
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] operationAndWeight = part.trim().split(":");
+            if (operationAndWeight.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + part);
+            }
+            int weight = Integer.parseInt(operationAndWeight[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(operationAndWeight[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix has no operation with a positive weight: " + mix);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,32 @@
+package com.mmacedoaraujo.supportportal.loadtest;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import static com.mmacedoaraujo.supportportal.loadtest.LoadTestConstant.LOADTEST_PROFILE;
+import static com.mmacedoaraujo.supportportal.loadtest.LoadTestConstant.SMTP_STUB_STARTED;
+
+@Slf4j
+@Configuration
+@Profile(LOADTEST_PROFILE)
+public class LoadTestConfiguration {
+
+    @Bean(destroyMethod = "stop")
+    public GreenMail greenMail(@Value("${email.smtp.port}") int smtpPort) {
+        GreenMail greenMail = new GreenMail(new ServerSetup(smtpPort, "localhost", ServerSetup.PROTOCOL_SMTP));
+        greenMail.start();
+        log.info(SMTP_STUB_STARTED + smtpPort);
+        return greenMail;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public AvatarStubServer avatarStubServer(@Value("${loadtest.avatar.port:3080}") int port,
+                                             @Value("${loadtest.avatar.threads:8}") int threads) {
+        return new AvatarStubServer(port, threads);
+    }
+}
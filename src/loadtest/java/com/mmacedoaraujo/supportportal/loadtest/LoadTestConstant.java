@@ -0,0 +1,13 @@
+package com.mmacedoaraujo.supportportal.loadtest;
+
+public class LoadTestConstant {
+
+    public static final String LOADTEST_PROFILE = "loadtest";
+    public static final String SEEDED_USERNAME_PREFIX = "loadtest";
+    public static final String SEEDED_EMAIL_DOMAIN = "@loadtest.local";
+    public static final String REGISTERED_USERNAME_PREFIX = "registered";
+    public static final String AVATAR_STUB_PATH = "/avatar/";
+    public static final String USERS_SEEDED = "Seeded load test users: ";
+    public static final String AVATAR_STUB_STARTED = "Avatar stub listening on port: ";
+    public static final String SMTP_STUB_STARTED = "GreenMail SMTP server listening on port: ";
+}
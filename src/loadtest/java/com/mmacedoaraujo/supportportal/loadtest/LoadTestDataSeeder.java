@@ -0,0 +1,65 @@
+package com.mmacedoaraujo.supportportal.loadtest;
+
+import com.mmacedoaraujo.supportportal.domain.User;
+import com.mmacedoaraujo.supportportal.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static com.mmacedoaraujo.supportportal.enumeration.Role.ROLE_SUPER_ADMIN;
+import static com.mmacedoaraujo.supportportal.loadtest.LoadTestConstant.*;
+
+// users with a known password for the load driver; super admins so every endpoint in the mix is allowed
+@Slf4j
+@Component
+@Profile(LOADTEST_PROFILE)
+public class LoadTestDataSeeder implements ApplicationRunner {
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final int userCount;
+    private final String password;
+
+    public LoadTestDataSeeder(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                              @Value("${loadtest.users:50}") int userCount,
+                              @Value("${loadtest.password:loadtest}") String password) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.userCount = userCount;
+        this.password = password;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String encodedPassword = passwordEncoder.encode(password);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            String username = SEEDED_USERNAME_PREFIX + i;
+            if (userRepository.findByUsername(username) == null) {
+                users.add(User.builder()
+                        .userId(String.format("%010d", i))
+                        .firstName("Load")
+                        .lastName("Test " + i)
+                        .username(username)
+                        .email(username + SEEDED_EMAIL_DOMAIN)
+                        .password(encodedPassword)
+                        .joinDate(new Date())
+                        .role(ROLE_SUPER_ADMIN.name())
+                        .authorities(ROLE_SUPER_ADMIN.getAuthorities())
+                        .isEnabled(true)
+                        .isNonLocked(true)
+                        .build());
+            }
+        }
+        userRepository.saveAll(users);
+        log.info(USERS_SEEDED + users.size());
+    }
+}
@@ -0,0 +1,37 @@
+package com.mmacedoaraujo.supportportal.loadtest;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+public class LoadTestImages {
+
+    private LoadTestImages() {
+    }
+
+    // a small JPEG whose bytes, and therefore its content hash, differ per seed
+    public static byte[] jpeg(int seed, int size) {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(new Color(Color.HSBtoRGB((seed * 0.618034f) % 1, 0.6f, 0.9f)));
+            graphics.fillRect(0, 0, size, size);
+            graphics.setColor(Color.WHITE);
+            graphics.fillOval(size / 4, size / 4, size / 2, size / 2);
+            graphics.drawString(Integer.toString(seed), 4, size - 4);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "jpg", output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,10 @@
+package com.mmacedoaraujo.supportportal.loadtest;
+
+public enum Operation {
+    LOGIN,
+    LIST,
+    FIND,
+    IMAGE,
+    AVATAR,
+    REGISTER
+}
@@ -0,0 +1,23 @@
+package com.mmacedoaraujo.supportportal.loadtest;
+
+import com.icegreen.greenmail.util.GreenMail;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import static com.mmacedoaraujo.supportportal.loadtest.LoadTestConstant.LOADTEST_PROFILE;
+
+// registration mail is only received so the SMTP round trip is part of the measurement, drop it before it piles up on the heap
+@Component
+@Profile(LOADTEST_PROFILE)
+@AllArgsConstructor
+public class ReceivedEmailPurger {
+
+    private final GreenMail greenMail;
+
+    @Scheduled(fixedDelayString = "${loadtest.smtp.purge-interval-millis:60000}")
+    public void purgeReceivedEmails() throws Exception {
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+}
@@ -2,7 +2,9 @@ package com.mmacedoaraujo.supportportal;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
@@ -12,12 +14,16 @@ import java.util.Arrays;
 import java.util.Collections;
 
 import static com.mmacedoaraujo.supportportal.constant.FileConstant.USER_FOLDER;
+import static com.mmacedoaraujo.supportportal.constant.StartupConstant.STARTUP_STEP_CAPACITY;
 
 @SpringBootApplication
+@EnableScheduling
 public class SupportportalApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(SupportportalApplication.class, args);
+        SpringApplication application = new SpringApplication(SupportportalApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+        application.run(args);
         new File(USER_FOLDER).mkdirs();
     }
 
@@ -29,10 +35,11 @@ public class SupportportalApplication {
         corsConfiguration.setAllowedOrigins(Collections.singletonList("http://localhost:4200"));
         corsConfiguration.setAllowedHeaders(Arrays.asList("Origin", "Access-Control-Allow-Origin", "Content-Type",
                 "Accept", "Jwt-Token", "Authorization", "Origin, Accept", "X-Requested-With",
-                "Access-Control-Request-Method", "Access-Control-Request-Headers"));
+                "Access-Control-Request-Method", "Access-Control-Request-Headers", "If-Match", "If-None-Match"));
         corsConfiguration.setExposedHeaders(Arrays.asList("Origin", "Content-Type", "Accept", "Jwt-Token", "Authorization",
-                "Access-Control-Allow-Origin", "Access-Control-Allow-Origin", "Access-Control-Allow-Credentials"));
-        corsConfiguration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+                "Access-Control-Allow-Origin", "Access-Control-Allow-Origin", "Access-Control-Allow-Credentials", "ETag",
+                "Retry-After"));
+        corsConfiguration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         source.registerCorsConfiguration("/**", corsConfiguration);
         return new CorsFilter(source);
 
@@ -0,0 +1,52 @@
+package com.mmacedoaraujo.supportportal.configuration;
+
+import com.mmacedoaraujo.supportportal.utility.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Replaces the auto-configured pool with a primary pool (spring.datasource.*) and a replica pool (datasource.replica.*),
+// exposed to JPA through the routing data source. Flyway always migrates the primary.
+@Configuration
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfiguration {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return new HikariDataSource();
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                                        @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+                                                        @Value("${datasource.routing.lag-tolerance-millis:2000}") long lagToleranceMillis,
+                                                        @Value("${datasource.routing.max-tracked-writers:100000}") long maxTrackedWriters,
+                                                        @Value("${datasource.routing.health-check-timeout-seconds:1}") int healthCheckTimeoutSeconds) {
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, lagToleranceMillis, maxTrackedWriters,
+                healthCheckTimeoutSeconds);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,75 @@
+package com.mmacedoaraujo.supportportal.configuration;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.mmacedoaraujo.supportportal.constant.FileConstant.THUMBNAIL_QUEUE_METRIC;
+
+@Configuration
+public class ExecutorConfiguration {
+
+    @Bean
+    public ThreadPoolTaskExecutor thumbnailExecutor(@Value("${images.thumbnail.threads:2}") int threads,
+                                                    @Value("${images.thumbnail.queue-capacity:100}") int queueCapacity,
+                                                    MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("thumbnail-");
+        executor.initialize();
+        Gauge.builder(THUMBNAIL_QUEUE_METRIC, executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Uploaded images waiting for thumbnail generation")
+                .register(meterRegistry);
+        return executor;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService authenticationExecutor(@Value("${executors.authentication.threads:4}") int threads,
+                                                  @Value("${executors.authentication.queue-capacity:200}") int queueCapacity,
+                                                  MeterRegistry meterRegistry) {
+        return boundedExecutor("authentication", threads, queueCapacity, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService accountExecutor(@Value("${executors.account.threads:8}") int threads,
+                                           @Value("${executors.account.queue-capacity:100}") int queueCapacity,
+                                           MeterRegistry meterRegistry) {
+        return boundedExecutor("account", threads, queueCapacity, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService imageExecutor(@Value("${executors.image.threads:8}") int threads,
+                                         @Value("${executors.image.queue-capacity:200}") int queueCapacity,
+                                         MeterRegistry meterRegistry) {
+        return boundedExecutor("image", threads, queueCapacity, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService avatarExecutor(@Value("${executors.avatar.threads:16}") int threads,
+                                          @Value("${executors.avatar.queue-capacity:200}") int queueCapacity,
+                                          MeterRegistry meterRegistry) {
+        return boundedExecutor("avatar", threads, queueCapacity, meterRegistry);
+    }
+
+    // fixed size pool with a bounded queue; a full queue rejects instead of piling up requests.
+    // ExecutorServiceMetrics publishes executor.queued/active/completed plus the executor (run) and executor.idle (queue wait) timers
+    private ExecutorService boundedExecutor(String name, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build());
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, name, Tags.empty());
+    }
+}
@@ -0,0 +1,18 @@
+package com.mmacedoaraujo.supportportal.configuration;
+
+import com.mmacedoaraujo.supportportal.utility.InstrumentedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@Configuration
+public class PasswordEncoderConfiguration {
+
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength, MeterRegistry meterRegistry) {
+        return new InstrumentedPasswordEncoder(new BCryptPasswordEncoder(strength), meterRegistry);
+    }
+}
@@ -0,0 +1,29 @@
+package com.mmacedoaraujo.supportportal.configuration;
+
+import com.mmacedoaraujo.supportportal.domain.User;
+import com.mmacedoaraujo.supportportal.utility.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+@Configuration
+public class SingleFlightConfiguration {
+
+    @Bean
+    public SingleFlight<String, User> userLookupFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("user-lookup", meterRegistry);
+    }
+
+    @Bean
+    public SingleFlight<Path, ByteBuffer> imageLoadFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("image-load", meterRegistry);
+    }
+
+    @Bean
+    public SingleFlight<String, byte[]> avatarLoadFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("avatar-load", meterRegistry);
+    }
+}
@@ -0,0 +1,18 @@
+package com.mmacedoaraujo.supportportal.constant;
+
+public class AdmissionConstant {
+
+    public static final String[] USER_RESOURCE_PREFIXES = {"/users", ""};
+    public static final String ADMISSION_PROPERTY_PREFIX = "admission.";
+    public static final String INITIAL_LIMIT_PROPERTY = ".initial-limit";
+    public static final String MIN_LIMIT_PROPERTY = ".min-limit";
+    public static final String MAX_LIMIT_PROPERTY = ".max-limit";
+    public static final String RETRY_AFTER_PROPERTY = ".retry-after-seconds";
+    public static final int DEFAULT_INITIAL_LIMIT = 10;
+    public static final int DEFAULT_MIN_LIMIT = 1;
+    public static final int DEFAULT_MAX_LIMIT = 200;
+    public static final long DEFAULT_RETRY_AFTER_SECONDS = 1;
+    public static final double BACKOFF_RATIO = 0.9;
+    public static final double BASELINE_DRIFT = 1.1;
+    public static final String ADMISSION_REJECTED_MESSAGE = "Too many requests of this kind are in progress, please retry later";
+}
@@ -12,5 +12,29 @@ public class FileConstant {
     public static final String FORWARD_SLASH = "/";
     public static final String TEMP_PROFILE_IMAGE_FIRST_PART_URL = "https://source.boringavatars.com/beam/120/";
     public static final String TEMP_PROFILE_IMAGE_SECOND_PART_URL = "?colors=4C3D31,F18273,F2BD76,F4F5DE,C4CEB0";
+    public static final String TEMP_PROFILE_IMAGE_BASE_URL = "https://avatars.dicebear.com/api/micah/:";
+    public static final int[] THUMBNAIL_SIZES = {32, 64, 256};
+    public static final String THUMBNAIL_SEPARATOR = "_";
+    public static final String THUMBNAILS_CREATED = "Created thumbnails for: ";
+    public static final String THUMBNAIL_QUEUE_FULL = "Thumbnail queue is full, serving original image for: ";
+    public static final String UNSUPPORTED_IMAGE_FORMAT = "Unsupported image format: ";
+    public static final String IMAGE_DIMENSIONS_TOO_LARGE = "Image has more pixels than images.thumbnail.max-pixels, no thumbnails for: ";
+    public static final String THUMBNAIL_QUEUE_METRIC = "supportportal.images.thumbnail.queue";
+    public static final String BLOB_IMAGE_PATH = "/users/image/blob/";
+    public static final String IMAGE_STORE_FOLDER = System.getProperty("user.home") + "/supportportal/images/";
+    public static final String IMAGE_STORE_TEMP_FOLDER = "tmp";
+    public static final String IMAGE_HASH_ALGORITHM = "SHA-256";
+    public static final String IMAGE_HASH_PATTERN = "[0-9a-f]{64}";
+    public static final int IMAGE_SHARD_LENGTH = 2;
+    public static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+    public static final String PENDING_THUMBNAIL_CACHE_CONTROL = "no-cache";
+    public static final String BLOB_STORED = "Stored image blob: ";
+    public static final String BLOB_DELETED = "Deleted unreferenced image blob: ";
+    public static final String INVALID_IMAGE_HASH = "Invalid image hash: ";
+    public static final String NOT_AN_IMAGE_FILE = "Uploaded file is not a JPEG, PNG or GIF image";
+    public static final String IMAGE_TOO_LARGE = "Image exceeds the maximum upload size in bytes: ";
+    public static final String IMAGE_CACHE_REQUESTS_METRIC = "supportportal.images.cache.requests";
+    public static final String IMAGE_CACHE_HIT_RATIO_METRIC = "supportportal.images.cache.hit.ratio";
+    public static final String IMAGE_CACHE_RESIDENT_BYTES_METRIC = "supportportal.images.cache.resident";
 
 }
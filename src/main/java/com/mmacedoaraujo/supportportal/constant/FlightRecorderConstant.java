@@ -0,0 +1,21 @@
+package com.mmacedoaraujo.supportportal.constant;
+
+public class FlightRecorderConstant {
+
+    public static final String EVENT_CATEGORY = "Support Portal";
+    public static final String LOGIN_EVENT = "com.mmacedoaraujo.supportportal.Login";
+    public static final String TOKEN_VERIFICATION_EVENT = "com.mmacedoaraujo.supportportal.TokenVerification";
+    public static final String PASSWORD_ENCODER_EVENT = "com.mmacedoaraujo.supportportal.PasswordEncoder";
+    public static final String REPOSITORY_QUERY_EVENT = "com.mmacedoaraujo.supportportal.RepositoryQuery";
+    public static final String EMAIL_SEND_EVENT = "com.mmacedoaraujo.supportportal.EmailSend";
+    public static final String[] EVENT_NAMES = {LOGIN_EVENT, TOKEN_VERIFICATION_EVENT, PASSWORD_ENCODER_EVENT, REPOSITORY_QUERY_EVENT, EMAIL_SEND_EVENT};
+    public static final String RECORDING_NAME = "supportportal";
+    public static final String RECORDING_FILE_PREFIX = "supportportal-";
+    public static final String RECORDING_FILE_EXTENSION = ".jfr";
+    public static final int USERNAME_HASH_LENGTH = 16;
+    public static final String RECORDING_STARTED = "Flight recording started";
+    public static final String RECORDING_STOPPED = "Flight recording stopped";
+    public static final String RECORDING_ALREADY_RUNNING = "A flight recording is already running";
+    public static final String NO_RUNNING_RECORDING = "There is no running flight recording";
+    public static final String NO_RECORDING = "There is no flight recording to dump";
+}
@@ -0,0 +1,31 @@
+package com.mmacedoaraujo.supportportal.constant;
+
+public class MetricsConstant {
+
+    public static final String TOKEN_VERIFICATION_METRIC = "supportportal.auth.token.verification";
+    public static final String TOKEN_EPOCH_ENTRIES_METRIC = "supportportal.auth.token.epochs";
+    public static final String PASSWORD_ENCODER_METRIC = "supportportal.auth.password";
+    public static final String LOGIN_ATTEMPT_METRIC = "supportportal.auth.login.attempts";
+    public static final String PASSWORD_RESET_LIMIT_METRIC = "supportportal.auth.password.reset.limit";
+    public static final String PASSWORD_RESET_BUCKETS_METRIC = "supportportal.auth.password.reset.buckets";
+    public static final String EMAIL_SEND_METRIC = "supportportal.email.send";
+    public static final String IMAGE_IO_METRIC = "supportportal.images.io";
+    public static final String ADMISSION_LIMIT_METRIC = "supportportal.admission.limit";
+    public static final String ADMISSION_IN_FLIGHT_METRIC = "supportportal.admission.in.flight";
+    public static final String ADMISSION_REJECTED_METRIC = "supportportal.admission.rejected";
+    public static final String DATASOURCE_ROUTE_METRIC = "supportportal.datasource.route";
+    public static final String DATASOURCE_REPLICA_HEALTHY_METRIC = "supportportal.datasource.replica.healthy";
+    public static final String USER_PURGE_METRIC = "supportportal.users.purge";
+    public static final String USER_PURGE_BACKLOG_METRIC = "supportportal.users.purge.backlog";
+    public static final String USER_STATISTICS_DRIFT_METRIC = "supportportal.users.statistics.drift";
+    public static final String SINGLE_FLIGHT_METRIC = "supportportal.singleflight.calls";
+    public static final String OPERATION_TAG = "operation";
+    public static final String TYPE_TAG = "type";
+    public static final String ROUTE_TAG = "route";
+    public static final String ENDPOINT_CLASS_TAG = "endpoint.class";
+    public static final String FLIGHT_TAG = "flight";
+    public static final String OUTCOME_TAG = "outcome";
+    public static final String DECISION_TAG = "decision";
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+}
@@ -8,6 +8,7 @@ public class SecurityConstant {
     public static final String MMACEDOARAUJO_LLC = "mmacedoaraujo";
     public static final String MMACEDOARAUJO_ADMINISTRATION = "User Management Portal";
     public static final String AUTHORITIES = "authorities";
+    public static final String TOKEN_EPOCH = "epoch";
     public static final String FORBIDDEN_MESSAGE = "You need to log in to access this page";
     public static final String ACCESS_DENIED_MESSAGE = "You do not have permission to access this page";
     public static final String OPTIONS_HTTP_METHOD = "OPTIONS";
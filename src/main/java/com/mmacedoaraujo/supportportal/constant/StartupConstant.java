@@ -0,0 +1,16 @@
+package com.mmacedoaraujo.supportportal.constant;
+
+public class StartupConstant {
+
+    public static final int STARTUP_STEP_CAPACITY = 8192;
+    public static final String BEAN_INSTANTIATE_STEP = "spring.beans.instantiate";
+    public static final String BEAN_NAME_TAG = "beanName";
+    public static final String STARTUP_REPORT_HEADER = "Startup finished, JVM uptime {} ms, {} recorded steps";
+    public static final String STARTUP_PHASE_LINE = "  phase {} {} ms";
+    public static final String STARTUP_BEAN_LINE = "  bean {} {} ms";
+    public static final String STARTUP_BUFFER_FULL = "Startup step buffer is full, the report only covers the first {} steps";
+    public static final String WARM_UP_USERNAME = "warmup";
+    public static final String WARM_UP_STAGE_FINISHED = "Warm-up {} finished in {} ms";
+    public static final String WARM_UP_STAGE_FAILED = "Warm-up {} failed, continuing: {}";
+    public static final String WARM_UP_FINISHED = "Warm-up finished in {} ms, accepting traffic";
+}
@@ -7,4 +7,12 @@ public class UserServiceImplConstant {
     public static final String USER_NOT_FOUND_BY_USERNAME = "User not found by username: ";
 
     public static final String NO_USER_FOUND_BY_EMAIL = "No user found for email: ";
+    public static final String TOO_MANY_PASSWORD_RESETS = "Too many password reset requests, please try again later";
+    public static final int USER_MODIFICATION_SEQUENCE_ID = 1;
+    public static final String USER_MODIFIED = "The user was modified by someone else, reload it and try again";
+    public static final String INVALID_CURSOR = "Invalid change feed cursor";
+    public static final String BULK_TARGET_REQUIRED = "Pass either a list of ids or at least one filter";
+    public static final String BULK_TOO_MANY_IDS = "Too many ids in one request, the maximum is: ";
+    public static final String BULK_INVALID_ROLE = "Invalid role: ";
+    public static final String INVALID_FIELD = "Unknown field: ";
 }
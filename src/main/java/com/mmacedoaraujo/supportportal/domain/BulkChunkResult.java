@@ -0,0 +1,14 @@
+package com.mmacedoaraujo.supportportal.domain;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class BulkChunkResult {
+    private int chunk;
+    private int requested;
+    private int affected;
+}
@@ -0,0 +1,18 @@
+package com.mmacedoaraujo.supportportal.domain;
+
+import com.mmacedoaraujo.supportportal.enumeration.BulkOperation;
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class BulkOperationResult {
+    private BulkOperation operation;
+    private int requested;
+    private int affected;
+    private List<BulkChunkResult> chunks;
+}
@@ -0,0 +1,18 @@
+package com.mmacedoaraujo.supportportal.domain;
+
+import lombok.*;
+
+import java.util.List;
+
+// targets either the listed ids or every user matching the filter fields; role is the new role of a role change
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class BulkUserRequest {
+    private List<Long> ids;
+    private String filterRole;
+    private Boolean filterLocked;
+    private String role;
+}
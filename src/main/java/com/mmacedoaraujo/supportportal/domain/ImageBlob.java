@@ -0,0 +1,28 @@
+package com.mmacedoaraujo.supportportal.domain;
+
+import lombok.*;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.util.Date;
+
+@Getter
+@Setter
+@ToString
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "image_blobs_tb")
+@Builder
+public class ImageBlob implements Serializable {
+    @Id
+    @Column(length = 64, nullable = false, updatable = false)
+    private String hash;
+    private long size;
+    private int referenceCount;
+    private Date createdDate;
+    private Date releasedDate;
+}
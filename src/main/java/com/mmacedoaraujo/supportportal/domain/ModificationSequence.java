@@ -0,0 +1,21 @@
+package com.mmacedoaraujo.supportportal.domain;
+
+import lombok.*;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.Serializable;
+
+@Getter
+@Setter
+@ToString
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "modification_sequence_tb")
+public class ModificationSequence implements Serializable {
+    @Id
+    private Integer id;
+    private long currentValue;
+}
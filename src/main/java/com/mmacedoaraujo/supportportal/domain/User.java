@@ -1,8 +1,11 @@
 package com.mmacedoaraujo.supportportal.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Where;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -16,6 +19,10 @@ import java.util.Objects;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "users_tb")
+// soft deleted users stay in the table until UserPurgeService removes them, no query sees them
+@Where(clause = "deleted_date is null")
+// updates only write the columns that changed, so a login or a name edit never rewrites the authorities blob
+@DynamicUpdate
 @Builder
 public class User implements Serializable {
     @Id
@@ -31,6 +38,17 @@ public class User implements Serializable {
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String email;
     private String profileImageUrl;
+    @JsonIgnore
+    private String profileImageHash;
+    @JsonIgnore
+    private long tokenEpoch;
+    @JsonIgnore
+    private long modificationSeq;
+    @Version
+    @JsonIgnore
+    private long version;
+    @JsonIgnore
+    private Date deletedDate;
     private Date lastLoginDate;
     private Date lastLoginDateDisplay;
     private Date joinDate;
@@ -0,0 +1,18 @@
+package com.mmacedoaraujo.supportportal.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.mmacedoaraujo.supportportal.enumeration.ChangeType;
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserChange {
+    private ChangeType type;
+    private Long id;
+    private String username;
+    private User user;
+}
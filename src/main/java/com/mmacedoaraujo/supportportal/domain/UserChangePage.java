@@ -0,0 +1,16 @@
+package com.mmacedoaraujo.supportportal.domain;
+
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class UserChangePage {
+    private List<UserChange> changes;
+    private String cursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,20 @@
+package com.mmacedoaraujo.supportportal.domain;
+
+import lombok.*;
+
+// the editable user properties; a null property is left as it is
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+public class UserPatch {
+    private String firstName;
+    private String lastName;
+    private String username;
+    private String email;
+    private String role;
+    private Boolean enabled;
+    private Boolean nonLocked;
+}
@@ -30,6 +30,14 @@ public class UserPrincipal implements UserDetails {
         return this.user.getUsername();
     }
 
+    public User getUser() {
+        return this.user;
+    }
+
+    public long getTokenEpoch() {
+        return this.user.getTokenEpoch();
+    }
+
     @Override
     public boolean isAccountNonExpired() {
         return true;
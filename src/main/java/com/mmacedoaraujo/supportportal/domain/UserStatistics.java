@@ -0,0 +1,22 @@
+package com.mmacedoaraujo.supportportal.domain;
+
+import lombok.*;
+
+import java.util.Date;
+import java.util.Map;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class UserStatistics {
+    private long total;
+    private long enabled;
+    private long disabled;
+    private long locked;
+    private Map<String, Long> byRole;
+    private long loggedInLastDay;
+    private long loggedInLastWeek;
+    private Date reconciledAt;
+}
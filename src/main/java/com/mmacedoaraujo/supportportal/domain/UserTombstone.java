@@ -0,0 +1,26 @@
+package com.mmacedoaraujo.supportportal.domain;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Date;
+
+@Getter
+@Setter
+@ToString
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "user_tombstones_tb")
+@Builder
+public class UserTombstone implements Serializable {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(nullable = false, updatable = false)
+    private Long id;
+    private long userId;
+    private String username;
+    private long modificationSeq;
+    private Date deletedDate;
+}
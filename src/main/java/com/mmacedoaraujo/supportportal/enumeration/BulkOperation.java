@@ -0,0 +1,8 @@
+package com.mmacedoaraujo.supportportal.enumeration;
+
+public enum BulkOperation {
+    LOCK,
+    UNLOCK,
+    ROLE,
+    DELETE
+}
@@ -0,0 +1,6 @@
+package com.mmacedoaraujo.supportportal.enumeration;
+
+public enum ChangeType {
+    UPSERT,
+    DELETE
+}
@@ -0,0 +1,56 @@
+package com.mmacedoaraujo.supportportal.enumeration;
+
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import static com.mmacedoaraujo.supportportal.constant.AdmissionConstant.USER_RESOURCE_PREFIXES;
+
+// Endpoints that burn CPU or wait on I/O for every call and get their own admission limit.
+// Everything else, authenticated reads included, is never throttled.
+public enum EndpointClass {
+
+    AUTHENTICATION("authentication", "/login"),
+    ACCOUNT("account", "/register", "/add", "/update", "/update/*", "/resetpassword/*", "/bulk/*"),
+    IMAGE_UPLOAD("image-upload", "/updateProfileImage", "/updateProfileImage/*");
+
+    private static final PathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private String name;
+    private String[] patterns;
+
+    EndpointClass(String name, String... patterns) {
+        this.name = name;
+        this.patterns = patterns;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // the handler mappings match with or without a trailing slash, so the class does too
+    public static EndpointClass fromPath(String path) {
+        if (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        for (EndpointClass endpointClass : values()) {
+            if (endpointClass.matches(path)) {
+                return endpointClass;
+            }
+        }
+        return null;
+    }
+
+    private boolean matches(String path) {
+        for (String prefix : USER_RESOURCE_PREFIXES) {
+            if (path.startsWith(prefix)) {
+                String resourcePath = path.substring(prefix.length());
+                for (String pattern : patterns) {
+                    if (PATH_MATCHER.match(pattern, resourcePath)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
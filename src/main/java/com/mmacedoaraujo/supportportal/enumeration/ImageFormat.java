@@ -0,0 +1,54 @@
+package com.mmacedoaraujo.supportportal.enumeration;
+
+import java.nio.ByteBuffer;
+
+import static org.springframework.http.MediaType.*;
+
+public enum ImageFormat {
+
+    JPEG(IMAGE_JPEG_VALUE, 0xFF, 0xD8, 0xFF),
+    PNG(IMAGE_PNG_VALUE, 0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A),
+    GIF(IMAGE_GIF_VALUE, 0x47, 0x49, 0x46, 0x38);
+
+    public static final int MAX_SIGNATURE_LENGTH = 8;
+
+    private String mediaType;
+    private int[] signature;
+
+    ImageFormat(String mediaType, int... signature) {
+        this.mediaType = mediaType;
+        this.signature = signature;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public static ImageFormat fromHeader(ByteBuffer image) {
+        byte[] header = new byte[MAX_SIGNATURE_LENGTH];
+        int length = Math.min(header.length, image.remaining());
+        image.duplicate().get(header, 0, length);
+        return fromHeader(header, length);
+    }
+
+    public static ImageFormat fromHeader(byte[] header, int length) {
+        for (ImageFormat format : values()) {
+            if (format.matches(header, length)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    private boolean matches(byte[] header, int length) {
+        if (length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((header[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
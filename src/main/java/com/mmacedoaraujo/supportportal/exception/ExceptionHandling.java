@@ -4,19 +4,31 @@ import com.auth0.jwt.exceptions.TokenExpiredException;
 import com.mmacedoaraujo.supportportal.domain.HttpResponse;
 import com.mmacedoaraujo.supportportal.exception.domain.EmailExistException;
 import com.mmacedoaraujo.supportportal.exception.domain.EmailNotFoundException;
+import com.mmacedoaraujo.supportportal.exception.domain.ImageTooLargeException;
+import com.mmacedoaraujo.supportportal.exception.domain.InvalidBulkRequestException;
+import com.mmacedoaraujo.supportportal.exception.domain.InvalidCursorException;
+import com.mmacedoaraujo.supportportal.exception.domain.InvalidFieldException;
+import com.mmacedoaraujo.supportportal.exception.domain.NotAnImageFileException;
+import com.mmacedoaraujo.supportportal.exception.domain.PreconditionFailedException;
+import com.mmacedoaraujo.supportportal.exception.domain.RecordingStateException;
+import com.mmacedoaraujo.supportportal.exception.domain.TooManyRequestsException;
 import com.mmacedoaraujo.supportportal.exception.domain.UserNotFoundException;
 import com.mmacedoaraujo.supportportal.exception.domain.UsernameExistException;
+import com.mmacedoaraujo.supportportal.utility.FixedHttpResponses;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.web.servlet.error.ErrorController;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.LockedException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 
 import javax.persistence.NoResultException;
@@ -24,6 +36,9 @@ import java.io.IOException;
 import java.nio.file.AccessDeniedException;
 import java.util.Date;
 import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.mmacedoaraujo.supportportal.constant.UserServiceImplConstant.USER_MODIFIED;
 
 @RestControllerAdvice
 @Slf4j
@@ -37,26 +52,28 @@ public class ExceptionHandling implements ErrorController {
     private static final String ACCOUNT_DISABLED = "Your account has been disabled. If this is an error, please contact administration.";
     private static final String ERROR_PROCESSING_FILE = "Error occurred while processing file";
     private static final String NOT_ENOUGH_PERMISSION = "You do not have enough permission";
+    private static final String SERVER_BUSY = "The server is busy, please try again later";
+    private static final String IMAGE_TOO_LARGE_MSG = "Uploaded file exceeds the maximum upload size";
     public static final String ERROR_PATH = "/error";
 
     @ExceptionHandler(DisabledException.class)
     public ResponseEntity<HttpResponse> accountDisabledException() {
-        return createHttpResponse(HttpStatus.BAD_REQUEST, ACCOUNT_DISABLED);
+        return createFixedHttpResponse(HttpStatus.BAD_REQUEST, ACCOUNT_DISABLED);
     }
 
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<HttpResponse> badCredentialsException() {
-        return createHttpResponse(HttpStatus.BAD_REQUEST, INCORRECT_CREDENTIALS);
+        return createFixedHttpResponse(HttpStatus.BAD_REQUEST, INCORRECT_CREDENTIALS);
     }
 
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<HttpResponse> accessDeniedException() {
-        return createHttpResponse(HttpStatus.BAD_REQUEST, NOT_ENOUGH_PERMISSION);
+        return createFixedHttpResponse(HttpStatus.BAD_REQUEST, NOT_ENOUGH_PERMISSION);
     }
 
     @ExceptionHandler(LockedException.class)
     public ResponseEntity<HttpResponse> lockedException() {
-        return createHttpResponse(HttpStatus.FORBIDDEN, ACCOUNT_LOCKED);
+        return createFixedHttpResponse(HttpStatus.FORBIDDEN, ACCOUNT_LOCKED);
     }
 
     @ExceptionHandler(TokenExpiredException.class)
@@ -66,12 +83,12 @@ public class ExceptionHandling implements ErrorController {
 
     @ExceptionHandler(EmailExistException.class)
     public ResponseEntity<HttpResponse> emailExistException(EmailExistException exception) {
-        return createHttpResponse(HttpStatus.BAD_REQUEST, exception.getMessage());
+        return createFixedHttpResponse(HttpStatus.BAD_REQUEST, exception.getMessage());
     }
 
     @ExceptionHandler(UsernameExistException.class)
     public ResponseEntity<HttpResponse> usernameExistException(UsernameExistException exception) {
-        return createHttpResponse(HttpStatus.BAD_REQUEST, exception.getMessage());
+        return createFixedHttpResponse(HttpStatus.BAD_REQUEST, exception.getMessage());
     }
 
     @ExceptionHandler(EmailNotFoundException.class)
@@ -84,6 +101,64 @@ public class ExceptionHandling implements ErrorController {
         return createHttpResponse(HttpStatus.BAD_REQUEST, exception.getMessage());
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<HttpResponse> invalidCursorException(InvalidCursorException exception) {
+        return createFixedHttpResponse(HttpStatus.BAD_REQUEST, exception.getMessage());
+    }
+
+    @ExceptionHandler(InvalidBulkRequestException.class)
+    public ResponseEntity<HttpResponse> invalidBulkRequestException(InvalidBulkRequestException exception) {
+        return createHttpResponse(HttpStatus.BAD_REQUEST, exception.getMessage());
+    }
+
+    @ExceptionHandler(InvalidFieldException.class)
+    public ResponseEntity<HttpResponse> invalidFieldException(InvalidFieldException exception) {
+        return createHttpResponse(HttpStatus.BAD_REQUEST, exception.getMessage());
+    }
+
+    @ExceptionHandler(NotAnImageFileException.class)
+    public ResponseEntity<HttpResponse> notAnImageFileException(NotAnImageFileException exception) {
+        return createHttpResponse(HttpStatus.BAD_REQUEST, exception.getMessage());
+    }
+
+    @ExceptionHandler(ImageTooLargeException.class)
+    public ResponseEntity<HttpResponse> imageTooLargeException(ImageTooLargeException exception) {
+        return createHttpResponse(HttpStatus.PAYLOAD_TOO_LARGE, exception.getMessage());
+    }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<HttpResponse> maxUploadSizeExceededException() {
+        return createFixedHttpResponse(HttpStatus.PAYLOAD_TOO_LARGE, IMAGE_TOO_LARGE_MSG);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<HttpResponse> preconditionFailedException(PreconditionFailedException exception) {
+        return createFixedHttpResponse(HttpStatus.PRECONDITION_FAILED, exception.getMessage());
+    }
+
+    // a concurrent update committed between our read and our flush
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<HttpResponse> optimisticLockingFailureException() {
+        return createFixedHttpResponse(HttpStatus.PRECONDITION_FAILED, USER_MODIFIED);
+    }
+
+    @ExceptionHandler(RecordingStateException.class)
+    public ResponseEntity<HttpResponse> recordingStateException(RecordingStateException exception) {
+        return createHttpResponse(HttpStatus.CONFLICT, exception.getMessage());
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<HttpResponse> tooManyRequestsException(TooManyRequestsException exception) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(createFixedHttpResponse(HttpStatus.TOO_MANY_REQUESTS, exception.getMessage()).getBody());
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<HttpResponse> rejectedExecutionException() {
+        return createFixedHttpResponse(HttpStatus.SERVICE_UNAVAILABLE, SERVER_BUSY);
+    }
+
 //    @ExceptionHandler(NoHandlerFoundException.class)
 //    public ResponseEntity<HttpResponse> noHandlerFoundException() {
 //        return createHttpResponse(HttpStatus.BAD_REQUEST, "This page was not found");
@@ -119,6 +194,10 @@ public class ExceptionHandling implements ErrorController {
                 httpStatus.getReasonPhrase(), message), httpStatus);
     }
 
+    private ResponseEntity<HttpResponse> createFixedHttpResponse(HttpStatus httpStatus, String message) {
+        return FixedHttpResponses.responseEntity(httpStatus, httpStatus.getReasonPhrase(), message);
+    }
+
 //    @RequestMapping(ERROR_PATH)
 //    public ResponseEntity<HttpResponse> notFound404() {
 //        return createHttpResponse(HttpStatus.NOT_FOUND, "There is no mapping for this URL");
@@ -2,6 +2,6 @@ package com.mmacedoaraujo.supportportal.exception.domain;
 
 public class EmailExistException extends Exception {
     public EmailExistException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
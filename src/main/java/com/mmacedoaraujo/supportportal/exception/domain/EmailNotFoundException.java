@@ -2,6 +2,6 @@ package com.mmacedoaraujo.supportportal.exception.domain;
 
 public class EmailNotFoundException extends Exception {
     public EmailNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
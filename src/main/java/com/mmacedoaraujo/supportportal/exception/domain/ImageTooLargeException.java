@@ -0,0 +1,10 @@
+package com.mmacedoaraujo.supportportal.exception.domain;
+
+import java.io.IOException;
+
+// thrown from inside InputStream.read(), so it has to be an IOException
+public class ImageTooLargeException extends IOException {
+    public ImageTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.mmacedoaraujo.supportportal.exception.domain;
+
+public class InvalidBulkRequestException extends Exception {
+    public InvalidBulkRequestException(String message) {
+        super(message);
+    }
+}
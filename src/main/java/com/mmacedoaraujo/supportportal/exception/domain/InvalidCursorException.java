@@ -0,0 +1,7 @@
+package com.mmacedoaraujo.supportportal.exception.domain;
+
+public class InvalidCursorException extends Exception {
+    public InvalidCursorException(String message) {
+        super(message, null, false, false);
+    }
+}
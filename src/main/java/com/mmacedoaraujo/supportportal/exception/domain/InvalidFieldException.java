@@ -0,0 +1,7 @@
+package com.mmacedoaraujo.supportportal.exception.domain;
+
+public class InvalidFieldException extends Exception {
+    public InvalidFieldException(String message) {
+        super(message);
+    }
+}
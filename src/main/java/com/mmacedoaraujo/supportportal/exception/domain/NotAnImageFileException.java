@@ -0,0 +1,7 @@
+package com.mmacedoaraujo.supportportal.exception.domain;
+
+public class NotAnImageFileException extends Exception {
+    public NotAnImageFileException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,7 @@
+package com.mmacedoaraujo.supportportal.exception.domain;
+
+public class RecordingStateException extends Exception {
+    public RecordingStateException(String message) {
+        super(message, null, false, false);
+    }
+}
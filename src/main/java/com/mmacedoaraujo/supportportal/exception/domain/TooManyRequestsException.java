@@ -0,0 +1,15 @@
+package com.mmacedoaraujo.supportportal.exception.domain;
+
+public class TooManyRequestsException extends Exception {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
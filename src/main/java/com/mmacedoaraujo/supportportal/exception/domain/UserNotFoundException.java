@@ -2,6 +2,6 @@ package com.mmacedoaraujo.supportportal.exception.domain;
 
 public class UserNotFoundException extends Exception {
     public UserNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -2,6 +2,6 @@ package com.mmacedoaraujo.supportportal.exception.domain;
 
 public class UsernameExistException extends Exception {
     public UsernameExistException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,146 @@
+package com.mmacedoaraujo.supportportal.filter;
+
+import com.mmacedoaraujo.supportportal.enumeration.EndpointClass;
+import com.mmacedoaraujo.supportportal.utility.AdaptiveConcurrencyLimit;
+import com.mmacedoaraujo.supportportal.utility.FixedHttpResponses;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static com.mmacedoaraujo.supportportal.constant.AdmissionConstant.*;
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.*;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+// Runs ahead of the security chain so a rejected request costs neither token verification nor a thread from the executors.
+// The endpoints answer asynchronously, so the permit is held until the async request completes, not until this filter returns.
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+@ConditionalOnProperty(name = "admission.enabled", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    // the decoded and normalised path the handler mappings match against, so no spelling of a URL reaches a throttled
+    // endpoint without being classified
+    private static final UrlPathHelper URL_PATH_HELPER = new UrlPathHelper();
+
+    static {
+        URL_PATH_HELPER.setAlwaysUseFullPath(true);
+    }
+
+    private final Map<EndpointClass, AdaptiveConcurrencyLimit> limits = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejectedCounters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, String> retryAfterSeconds = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionControlFilter(Environment environment,
+                                  @Value("${admission.tolerance:2.0}") double tolerance,
+                                  @Value("${admission.window-samples:100}") int windowSamples,
+                                  MeterRegistry meterRegistry) {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String prefix = ADMISSION_PROPERTY_PREFIX + endpointClass.getName();
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+                    environment.getProperty(prefix + INITIAL_LIMIT_PROPERTY, Integer.class, DEFAULT_INITIAL_LIMIT),
+                    environment.getProperty(prefix + MIN_LIMIT_PROPERTY, Integer.class, DEFAULT_MIN_LIMIT),
+                    environment.getProperty(prefix + MAX_LIMIT_PROPERTY, Integer.class, DEFAULT_MAX_LIMIT),
+                    tolerance, windowSamples);
+            limits.put(endpointClass, limit);
+            retryAfterSeconds.put(endpointClass, String.valueOf(environment.getProperty(prefix + RETRY_AFTER_PROPERTY, Long.class, DEFAULT_RETRY_AFTER_SECONDS)));
+            Gauge.builder(ADMISSION_LIMIT_METRIC, limit, AdaptiveConcurrencyLimit::getLimit)
+                    .tag(ENDPOINT_CLASS_TAG, endpointClass.getName()).register(meterRegistry);
+            Gauge.builder(ADMISSION_IN_FLIGHT_METRIC, limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .tag(ENDPOINT_CLASS_TAG, endpointClass.getName()).register(meterRegistry);
+            rejectedCounters.put(endpointClass, Counter.builder(ADMISSION_REJECTED_METRIC)
+                    .tag(ENDPOINT_CLASS_TAG, endpointClass.getName()).register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.fromPath(URL_PATH_HELPER.getLookupPathForRequest(request));
+        if (endpointClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        AdaptiveConcurrencyLimit limit = limits.get(endpointClass);
+        if (!limit.tryAcquire()) {
+            rejectedCounters.get(endpointClass).increment();
+            reject(response, retryAfterSeconds.get(endpointClass));
+            return;
+        }
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingAsyncListener(limit, start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                limit.release(start, isOverloaded(response));
+            }
+        }
+    }
+
+    private static void reject(HttpServletResponse response, String retryAfter) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(RETRY_AFTER, retryAfter);
+        response.setContentType(APPLICATION_JSON_VALUE);
+        OutputStream outputStream = response.getOutputStream();
+        outputStream.write(FixedHttpResponses.json(HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase().toUpperCase(), ADMISSION_REJECTED_MESSAGE));
+        outputStream.flush();
+    }
+
+    // executors answer 503 when their queue is full, which means the limit is still above what the node can take
+    private static boolean isOverloaded(HttpServletResponse response) {
+        return response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+
+    private static class ReleasingAsyncListener implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimit limit;
+        private final long start;
+
+        private ReleasingAsyncListener(AdaptiveConcurrencyLimit limit, long start) {
+            this.limit = limit;
+            this.start = start;
+        }
+
+        // onComplete also follows a timeout or an error, so it is the single place the permit goes back
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limit.release(start, isOverloaded((HttpServletResponse) event.getSuppliedResponse()));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
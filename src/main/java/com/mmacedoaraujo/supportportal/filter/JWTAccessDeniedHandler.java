@@ -1,7 +1,6 @@
 package com.mmacedoaraujo.supportportal.filter;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.mmacedoaraujo.supportportal.domain.HttpResponse;
+import com.mmacedoaraujo.supportportal.utility.FixedHttpResponses;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.web.access.AccessDeniedHandler;
@@ -14,7 +13,6 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.security.Timestamp;
 import java.time.Instant;
-import java.util.Date;
 
 import static com.mmacedoaraujo.supportportal.constant.SecurityConstant.ACCESS_DENIED_MESSAGE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
@@ -23,18 +21,10 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 public class JWTAccessDeniedHandler implements AccessDeniedHandler {
     @Override
     public void handle(HttpServletRequest request, HttpServletResponse response, AccessDeniedException exception) throws IOException, ServletException {
-        HttpResponse httpResponse = HttpResponse.builder()
-                .timestamp(new Date())
-                .httpStatus(HttpStatus.UNAUTHORIZED)
-                .httpStatusCode(HttpStatus.UNAUTHORIZED.value())
-                .reason(HttpStatus.UNAUTHORIZED.getReasonPhrase().toUpperCase())
-                .message(ACCESS_DENIED_MESSAGE)
-                .build();
         response.setContentType(APPLICATION_JSON_VALUE);
         response.setStatus(HttpStatus.FORBIDDEN.value());
         OutputStream outputStream = response.getOutputStream();
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.writeValue(outputStream, httpResponse);
+        outputStream.write(FixedHttpResponses.json(HttpStatus.UNAUTHORIZED, HttpStatus.UNAUTHORIZED.getReasonPhrase().toUpperCase(), ACCESS_DENIED_MESSAGE));
         outputStream.flush();
     }
 }
@@ -1,7 +1,13 @@
 package com.mmacedoaraujo.supportportal.filter;
 
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.mmacedoaraujo.supportportal.jfr.TokenVerificationEvent;
+import com.mmacedoaraujo.supportportal.service.TokenEpochService;
 import com.mmacedoaraujo.supportportal.utility.JWTTokenProvider;
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -15,16 +21,32 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.OUTCOME_TAG;
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.TOKEN_VERIFICATION_METRIC;
 import static com.mmacedoaraujo.supportportal.constant.SecurityConstant.OPTIONS_HTTP_METHOD;
 import static com.mmacedoaraujo.supportportal.constant.SecurityConstant.TOKEN_PREFIX;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 
-@AllArgsConstructor
 @Component
 public class JWTAuthorizationFilter extends OncePerRequestFilter {
 
     private final JWTTokenProvider jwtTokenProvider;
+    private final TokenEpochService tokenEpochService;
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
+    private final Timer revokedTimer;
+    private final Timer invalidTimer;
+
+    public JWTAuthorizationFilter(JWTTokenProvider jwtTokenProvider, TokenEpochService tokenEpochService, MeterRegistry meterRegistry) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenEpochService = tokenEpochService;
+        this.authenticatedTimer = verificationTimer("authenticated", meterRegistry);
+        this.rejectedTimer = verificationTimer("rejected", meterRegistry);
+        this.revokedTimer = verificationTimer("revoked", meterRegistry);
+        this.invalidTimer = verificationTimer("invalid", meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -37,16 +59,47 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
                 return;
             }
 
+            TokenVerificationEvent event = new TokenVerificationEvent();
+            event.begin();
+            long start = System.nanoTime();
             String token = authorizationHeader.substring(TOKEN_PREFIX.length());
-            String username = jwtTokenProvider.getSubject(token);
-            if (jwtTokenProvider.isTokenValid(username, token)) {
-                List<GrantedAuthority> authorities = jwtTokenProvider.getAuthorities(token);
+            DecodedJWT decodedJWT;
+            try {
+                decodedJWT = jwtTokenProvider.verify(token);
+            } catch (JWTVerificationException e) {
+                invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                commit(event, "invalid");
+                throw e;
+            }
+            String username = decodedJWT.getSubject();
+            if (StringUtils.isEmpty(username)) {
+                SecurityContextHolder.clearContext();
+                rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                commit(event, "rejected");
+            } else if (!tokenEpochService.isCurrent(username, jwtTokenProvider.getTokenEpoch(decodedJWT))) {
+                SecurityContextHolder.clearContext();
+                revokedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                commit(event, "revoked");
+            } else {
+                List<GrantedAuthority> authorities = jwtTokenProvider.getAuthorities(decodedJWT);
                 Authentication authentication = jwtTokenProvider.getAuthentication(username, authorities, request);
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-            } else {
-                SecurityContextHolder.clearContext();
+                authenticatedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                commit(event, "authenticated");
             }
             filterChain.doFilter(request, response);
         }
     }
+
+    private static void commit(TokenVerificationEvent event, String outcome) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setOutcome(outcome);
+            event.commit();
+        }
+    }
+
+    private static Timer verificationTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder(TOKEN_VERIFICATION_METRIC).tag(OUTCOME_TAG, outcome).register(meterRegistry);
+    }
 }
@@ -0,0 +1,21 @@
+package com.mmacedoaraujo.supportportal.jfr;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+import static com.mmacedoaraujo.supportportal.constant.FlightRecorderConstant.EMAIL_SEND_EVENT;
+import static com.mmacedoaraujo.supportportal.constant.FlightRecorderConstant.EVENT_CATEGORY;
+
+@Name(EMAIL_SEND_EVENT)
+@Label("Email Send")
+@Category({EVENT_CATEGORY, "Email"})
+@StackTrace(false)
+@Setter
+public class EmailSendEvent extends Event {
+
+    @Label("SMTP Host")
+    private String smtpHost;
+
+    @Label("Outcome")
+    private String outcome;
+}
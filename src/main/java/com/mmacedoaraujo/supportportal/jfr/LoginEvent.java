@@ -0,0 +1,31 @@
+package com.mmacedoaraujo.supportportal.jfr;
+
+import com.google.common.hash.Hashing;
+import jdk.jfr.*;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.mmacedoaraujo.supportportal.constant.FlightRecorderConstant.*;
+
+@Name(LOGIN_EVENT)
+@Label("Login")
+@Category({EVENT_CATEGORY, "Authentication"})
+@StackTrace(false)
+public class LoginEvent extends Event {
+
+    @Label("Username Hash")
+    @Description("Truncated SHA-256 of the username, correlates attempts without recording the name")
+    private String usernameHash;
+
+    @Label("Outcome")
+    private String outcome;
+
+    public void setUsername(String username) {
+        this.usernameHash = username == null ? null
+                : Hashing.sha256().hashString(username, StandardCharsets.UTF_8).toString().substring(0, USERNAME_HASH_LENGTH);
+    }
+
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+}
@@ -0,0 +1,21 @@
+package com.mmacedoaraujo.supportportal.jfr;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+import static com.mmacedoaraujo.supportportal.constant.FlightRecorderConstant.EVENT_CATEGORY;
+import static com.mmacedoaraujo.supportportal.constant.FlightRecorderConstant.PASSWORD_ENCODER_EVENT;
+
+@Name(PASSWORD_ENCODER_EVENT)
+@Label("Password Encoder")
+@Category({EVENT_CATEGORY, "Authentication"})
+@StackTrace(false)
+@Setter
+public class PasswordEncoderEvent extends Event {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Outcome")
+    private String outcome;
+}
@@ -0,0 +1,24 @@
+package com.mmacedoaraujo.supportportal.jfr;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+import static com.mmacedoaraujo.supportportal.constant.FlightRecorderConstant.EVENT_CATEGORY;
+import static com.mmacedoaraujo.supportportal.constant.FlightRecorderConstant.REPOSITORY_QUERY_EVENT;
+
+@Name(REPOSITORY_QUERY_EVENT)
+@Label("Repository Query")
+@Category({EVENT_CATEGORY, "Persistence"})
+@StackTrace(false)
+@Setter
+public class RepositoryQueryEvent extends Event {
+
+    @Label("Repository")
+    private String repository;
+
+    @Label("Method")
+    private String method;
+
+    @Label("Outcome")
+    private String outcome;
+}
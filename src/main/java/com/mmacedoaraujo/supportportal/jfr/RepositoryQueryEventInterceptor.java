@@ -0,0 +1,39 @@
+package com.mmacedoaraujo.supportportal.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.FAILURE;
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.SUCCESS;
+
+public class RepositoryQueryEventInterceptor implements MethodInterceptor {
+
+    private final String repository;
+
+    public RepositoryQueryEventInterceptor(Class<?> repositoryInterface) {
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        event.begin();
+        String outcome = FAILURE;
+        try {
+            Object result = invocation.proceed();
+            outcome = SUCCESS;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setRepository(repository);
+                event.setMethod(invocation.getMethod().getName());
+                event.setOutcome(outcome);
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.mmacedoaraujo.supportportal.jfr;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+// wraps every Spring Data repository proxy with the JFR interceptor, the same hook Boot uses for its repository metrics
+@Component
+public class RepositoryQueryEventPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport) {
+            ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                    factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                            proxyFactory.addAdvice(new RepositoryQueryEventInterceptor(repositoryInformation.getRepositoryInterface()))));
+        }
+        return bean;
+    }
+}
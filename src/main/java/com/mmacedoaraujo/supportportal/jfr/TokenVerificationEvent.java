@@ -0,0 +1,18 @@
+package com.mmacedoaraujo.supportportal.jfr;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+import static com.mmacedoaraujo.supportportal.constant.FlightRecorderConstant.EVENT_CATEGORY;
+import static com.mmacedoaraujo.supportportal.constant.FlightRecorderConstant.TOKEN_VERIFICATION_EVENT;
+
+@Name(TOKEN_VERIFICATION_EVENT)
+@Label("Token Verification")
+@Category({EVENT_CATEGORY, "Authentication"})
+@StackTrace(false)
+@Setter
+public class TokenVerificationEvent extends Event {
+
+    @Label("Outcome")
+    private String outcome;
+}
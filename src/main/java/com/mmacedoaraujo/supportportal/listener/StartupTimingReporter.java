@@ -0,0 +1,83 @@
+package com.mmacedoaraujo.supportportal.listener;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.mmacedoaraujo.supportportal.constant.StartupConstant.*;
+
+// logs where startup time went, per phase (startup step name) and for the slowest beans. Times are self times: a step's
+// duration minus the steps nested in it, so a bean is not charged for the dependencies it pulled in.
+// The timeline is deliberately not exposed as /actuator/startup: actuator paths are public here and a POST to it drains the buffer.
+@Component
+@Slf4j
+public class StartupTimingReporter implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final ApplicationStartup applicationStartup;
+    private final int topBeans;
+
+    public StartupTimingReporter(ApplicationStartup applicationStartup, @Value("${startup.report.top-beans:15}") int topBeans) {
+        this.applicationStartup = applicationStartup;
+        this.topBeans = topBeans;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!(applicationStartup instanceof BufferingApplicationStartup) || !log.isInfoEnabled()) {
+            return;
+        }
+        List<TimelineEvent> events = ((BufferingApplicationStartup) applicationStartup).getBufferedTimeline().getEvents();
+        Map<Long, Long> selfNanos = new HashMap<>();
+        for (TimelineEvent timelineEvent : events) {
+            long nanos = timelineEvent.getDuration().toNanos();
+            StartupStep step = timelineEvent.getStartupStep();
+            selfNanos.merge(step.getId(), nanos, Long::sum);
+            if (step.getParentId() != null) {
+                selfNanos.merge(step.getParentId(), -nanos, Long::sum);
+            }
+        }
+        Map<String, Long> phases = new HashMap<>();
+        Map<String, Long> beans = new HashMap<>();
+        for (TimelineEvent timelineEvent : events) {
+            StartupStep step = timelineEvent.getStartupStep();
+            long nanos = selfNanos.get(step.getId());
+            phases.merge(step.getName(), nanos, Long::sum);
+            if (BEAN_INSTANTIATE_STEP.equals(step.getName())) {
+                beans.merge(getBeanName(step), nanos, Long::sum);
+            }
+        }
+        log.info(STARTUP_REPORT_HEADER, ManagementFactory.getRuntimeMXBean().getUptime(), events.size());
+        if (events.size() >= STARTUP_STEP_CAPACITY) {
+            log.info(STARTUP_BUFFER_FULL, STARTUP_STEP_CAPACITY);
+        }
+        phases.entrySet().stream()
+                .filter(phase -> phase.getValue() >= TimeUnit.MILLISECONDS.toNanos(1))
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(phase -> log.info(STARTUP_PHASE_LINE, phase.getKey(), TimeUnit.NANOSECONDS.toMillis(phase.getValue())));
+        beans.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(topBeans)
+                .forEach(bean -> log.info(STARTUP_BEAN_LINE, bean.getKey(), TimeUnit.NANOSECONDS.toMillis(bean.getValue())));
+    }
+
+    private String getBeanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (BEAN_NAME_TAG.equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+}
@@ -0,0 +1,188 @@
+package com.mmacedoaraujo.supportportal.listener;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mmacedoaraujo.supportportal.domain.User;
+import com.mmacedoaraujo.supportportal.domain.UserPrincipal;
+import com.mmacedoaraujo.supportportal.repository.ImageBlobRepository;
+import com.mmacedoaraujo.supportportal.repository.UserRepository;
+import com.mmacedoaraujo.supportportal.service.ImageCacheService;
+import com.mmacedoaraujo.supportportal.service.ImageStoreService;
+import com.mmacedoaraujo.supportportal.service.ThumbnailService;
+import com.mmacedoaraujo.supportportal.utility.JWTTokenProvider;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.mmacedoaraujo.supportportal.constant.FileConstant.THUMBNAIL_SIZES;
+import static com.mmacedoaraujo.supportportal.constant.StartupConstant.*;
+import static com.mmacedoaraujo.supportportal.enumeration.Role.ROLE_SUPER_ADMIN;
+
+// Boot only reports readiness (ReadinessState.ACCEPTING_TRAFFIC, /actuator/health/readiness) once every ApplicationRunner
+// has returned, so running the warm-up here keeps the instance out of the load balancer until the hot paths are compiled,
+// the connection pool is full and the image cache holds the recently active users
+@Component
+@Slf4j
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpRunner implements ApplicationRunner {
+
+    private final JWTTokenProvider jwtTokenProvider;
+    private final UserRepository userRepository;
+    private final ImageBlobRepository imageBlobRepository;
+    private final ImageStoreService imageStoreService;
+    private final ImageCacheService imageCacheService;
+    private final ThumbnailService thumbnailService;
+    private final RequestMappingHandlerAdapter requestMappingHandlerAdapter;
+    private final List<HikariDataSource> connectionPools;
+    private final int iterations;
+    private final int preloadUsers;
+
+    public WarmUpRunner(JWTTokenProvider jwtTokenProvider, UserRepository userRepository, ImageBlobRepository imageBlobRepository,
+                        ImageStoreService imageStoreService, ImageCacheService imageCacheService, ThumbnailService thumbnailService,
+                        RequestMappingHandlerAdapter requestMappingHandlerAdapter, List<HikariDataSource> connectionPools,
+                        @Value("${warmup.iterations:1000}") int iterations,
+                        @Value("${warmup.preload-users:50}") int preloadUsers) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.userRepository = userRepository;
+        this.imageBlobRepository = imageBlobRepository;
+        this.imageStoreService = imageStoreService;
+        this.imageCacheService = imageCacheService;
+        this.thumbnailService = thumbnailService;
+        this.requestMappingHandlerAdapter = requestMappingHandlerAdapter;
+        this.connectionPools = connectionPools;
+        this.iterations = iterations;
+        this.preloadUsers = preloadUsers;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        User user = User.builder()
+                .id(0L)
+                .userId("0000000000")
+                .firstName(WARM_UP_USERNAME)
+                .lastName(WARM_UP_USERNAME)
+                .username(WARM_UP_USERNAME)
+                .email(WARM_UP_USERNAME)
+                .joinDate(new Date())
+                .role(ROLE_SUPER_ADMIN.name())
+                .authorities(ROLE_SUPER_ADMIN.getAuthorities())
+                .isEnabled(true)
+                .isNonLocked(true)
+                .build();
+        stage("connection pool", this::fillConnectionPools);
+        stage("tokens", () -> warmUpTokens(user));
+        stage("json", () -> warmUpJson(user));
+        stage("repositories", this::warmUpRepositories);
+        stage("recent users", this::preloadRecentUsers);
+        log.info(WARM_UP_FINISHED, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // opens every pooled connection now instead of on the first requests after the deploy, replica pool included when reads are routed
+    private void fillConnectionPools() throws Exception {
+        for (HikariDataSource connectionPool : connectionPools) {
+            fillConnectionPool(connectionPool);
+        }
+    }
+
+    private void fillConnectionPool(HikariDataSource connectionPool) throws Exception {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < connectionPool.getMaximumPoolSize(); i++) {
+                Connection connection = connectionPool.getConnection();
+                connections.add(connection);
+                connection.isValid(1);
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    // builds the cached JWT verifier and gets the signing and verification paths compiled
+    private void warmUpTokens(User user) {
+        for (int i = 0; i < iterations; i++) {
+            UserPrincipal userPrincipal = new UserPrincipal(user);
+            String token = jwtTokenProvider.generateJwtToken(userPrincipal);
+            DecodedJWT decodedJWT = jwtTokenProvider.verify(token);
+            jwtTokenProvider.getTokenEpoch(decodedJWT);
+            jwtTokenProvider.getAuthorities(decodedJWT);
+        }
+    }
+
+    // uses the ObjectMapper of the MVC converter, so the User serializers it caches are the ones responses use
+    private void warmUpJson(User user) throws Exception {
+        ObjectMapper objectMapper = requestMappingHandlerAdapter.getMessageConverters().stream()
+                .filter(MappingJackson2HttpMessageConverter.class::isInstance)
+                .map(converter -> ((MappingJackson2HttpMessageConverter) converter).getObjectMapper())
+                .findFirst()
+                .orElseGet(ObjectMapper::new);
+        List<User> users = Collections.nCopies(10, user);
+        for (int i = 0; i < iterations; i++) {
+            objectMapper.writeValueAsBytes(user);
+            objectMapper.writeValueAsBytes(users);
+        }
+    }
+
+    private void warmUpRepositories() {
+        for (int i = 0; i < Math.max(1, iterations / 10); i++) {
+            userRepository.findByUsername(WARM_UP_USERNAME);
+            userRepository.findByEmail(WARM_UP_USERNAME);
+            userRepository.findAll(PageRequest.of(0, 1));
+            imageBlobRepository.findById(WARM_UP_USERNAME);
+        }
+    }
+
+    private void preloadRecentUsers() {
+        if (preloadUsers <= 0) {
+            return;
+        }
+        for (User user : userRepository.findByLastLoginDateNotNullOrderByLastLoginDateDesc(PageRequest.of(0, preloadUsers))) {
+            if (user.getProfileImageHash() == null) {
+                continue;
+            }
+            Path original = imageStoreService.getBlobPath(user.getProfileImageHash());
+            try {
+                imageCacheService.get(original);
+                for (int size : THUMBNAIL_SIZES) {
+                    imageCacheService.get(thumbnailService.resolveThumbnail(original, size));
+                }
+            } catch (Exception e) {
+                log.debug(WARM_UP_STAGE_FAILED, user.getUsername(), e.getMessage());
+            }
+        }
+    }
+
+    private void stage(String name, WarmUpStage stage) {
+        long start = System.nanoTime();
+        try {
+            stage.run();
+            log.info(WARM_UP_STAGE_FINISHED, name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            log.warn(WARM_UP_STAGE_FAILED, name, e.getMessage());
+        }
+    }
+
+    private interface WarmUpStage {
+        void run() throws Exception;
+    }
+}
@@ -1,9 +1,13 @@
 package com.mmacedoaraujo.supportportal.mapper;
 
 import com.mmacedoaraujo.supportportal.domain.User;
+import com.mmacedoaraujo.supportportal.domain.UserPatch;
+import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
 import org.mapstruct.factory.Mappers;
 
 @Mapper(componentModel = "spring", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
@@ -11,5 +15,17 @@ public interface UserMapper {
 
     UserMapper INSTANCE = Mappers.getMapper(UserMapper.class);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "tokenEpoch", ignore = true)
+    @Mapping(target = "modificationSeq", ignore = true)
+    @Mapping(target = "deletedDate", ignore = true)
     User updateUser(User user, @MappingTarget User userToUpdate);
+
+    // role is resolved by the service, which also sets the authorities that go with it
+    @BeanMapping(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+    @Mapping(target = "role", ignore = true)
+    void patchUser(UserPatch patch, @MappingTarget User userToUpdate);
+
+    UserPatch toPatch(User user);
 }
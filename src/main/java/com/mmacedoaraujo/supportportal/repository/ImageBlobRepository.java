@@ -0,0 +1,33 @@
+package com.mmacedoaraujo.supportportal.repository;
+
+import com.mmacedoaraujo.supportportal.domain.ImageBlob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Date;
+import java.util.List;
+
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, String> {
+
+    // MySQL's "on duplicate key update"; H2 accepts it only in MODE=MySQL, other vendors need their own upsert
+    @Modifying
+    @Query(value = "insert into image_blobs_tb (hash, size, reference_count, created_date) values (:hash, :size, 1, :now) " +
+            "on duplicate key update reference_count = reference_count + 1, released_date = null", nativeQuery = true)
+    void retain(@Param("hash") String hash, @Param("size") long size, @Param("now") Date now);
+
+    @Modifying
+    @Query("update ImageBlob b set b.referenceCount = b.referenceCount - 1, b.releasedDate = :now where b.hash = :hash and b.referenceCount > 0")
+    int release(@Param("hash") String hash, @Param("now") Date now);
+
+    @Query("select b.hash from ImageBlob b where b.referenceCount = 0 and b.releasedDate < :releasedBefore")
+    List<String> findUnreferencedHashes(@Param("releasedBefore") Date releasedBefore, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from ImageBlob b where b.hash = :hash")
+    ImageBlob findByHashForUpdate(@Param("hash") String hash);
+}
@@ -0,0 +1,16 @@
+package com.mmacedoaraujo.supportportal.repository;
+
+import com.mmacedoaraujo.supportportal.domain.ModificationSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+
+public interface ModificationSequenceRepository extends JpaRepository<ModificationSequence, Integer> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ModificationSequence s where s.id = :id")
+    ModificationSequence findByIdForUpdate(@Param("id") Integer id);
+}
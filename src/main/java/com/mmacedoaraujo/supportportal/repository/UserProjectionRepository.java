@@ -0,0 +1,10 @@
+package com.mmacedoaraujo.supportportal.repository;
+
+import javax.persistence.Tuple;
+import java.util.List;
+
+public interface UserProjectionRepository {
+
+    // every user in id order, selecting only the given attributes; each tuple element is aliased by its attribute name
+    List<Tuple> findAllAttributes(List<String> attributes);
+}
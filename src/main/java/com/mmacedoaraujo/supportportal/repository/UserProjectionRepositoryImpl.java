@@ -0,0 +1,31 @@
+package com.mmacedoaraujo.supportportal.repository;
+
+import com.mmacedoaraujo.supportportal.domain.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class UserProjectionRepositoryImpl implements UserProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findAllAttributes(List<String> attributes) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<User> user = query.from(User.class);
+        List<Selection<?>> selections = attributes.stream()
+                .map(attribute -> user.get(attribute).alias(attribute))
+                .collect(Collectors.toList());
+        query.multiselect(selections).orderBy(criteriaBuilder.asc(user.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -1,10 +1,82 @@
 package com.mmacedoaraujo.supportportal.repository;
 
 import com.mmacedoaraujo.supportportal.domain.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+public interface UserRepository extends JpaRepository<User, Long>, UserProjectionRepository {
 
     User findByUsername(String username);
     User findByEmail(String email);
+    List<User> findByLastLoginDateNotNullOrderByLastLoginDateDesc(Pageable pageable);
+
+    @Query("select u.tokenEpoch from User u where u.username = :username")
+    Long findTokenEpochByUsername(@Param("username") String username);
+
+    @Query("select u.username, u.tokenEpoch from User u where u.username in :usernames")
+    List<Object[]> findTokenEpochsByUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("select coalesce(max(u.modificationSeq), 0), count(u) from User u")
+    List<Object[]> findListVersion();
+
+    @Query("select u from User u where u.modificationSeq > :seq or (u.modificationSeq = :seq and u.id > :id) order by u.modificationSeq, u.id")
+    List<User> findChangedAfter(@Param("seq") long seq, @Param("id") long id, Pageable pageable);
+
+    @Query("select u.id, u.username, u.profileImageHash, u.role, u.isEnabled, u.isNonLocked, u.lastLoginDate from User u where u.id in :ids")
+    List<Object[]> findBulkTargets(@Param("ids") Collection<Long> ids);
+
+    @Query("select u.id from User u where (:role is null or u.role = :role) and (:nonLocked is null or u.isNonLocked = :nonLocked) " +
+            "and u.id > :afterId order by u.id")
+    List<Long> findIdsByFilter(@Param("role") String role, @Param("nonLocked") Boolean nonLocked, @Param("afterId") long afterId, Pageable pageable);
+
+    // the bulk updates bump the version and the token epoch like the single user update does
+    @Modifying
+    @Query("update User u set u.isNonLocked = :nonLocked, u.tokenEpoch = :tokenEpoch, u.version = u.version + 1 " +
+            "where u.id in :ids and u.deletedDate is null")
+    int updateNonLocked(@Param("ids") Collection<Long> ids, @Param("nonLocked") boolean nonLocked, @Param("tokenEpoch") long tokenEpoch);
+
+    @Modifying
+    @Query("update User u set u.role = :role, u.authorities = :authorities, u.tokenEpoch = :tokenEpoch, u.version = u.version + 1 " +
+            "where u.id in :ids and u.deletedDate is null")
+    int updateRole(@Param("ids") Collection<Long> ids, @Param("role") String role, @Param("authorities") String[] authorities,
+                   @Param("tokenEpoch") long tokenEpoch);
+
+    @Modifying
+    @Query("update User u set u.deletedDate = :deletedDate, u.version = u.version + 1 where u.id in :ids and u.deletedDate is null")
+    int softDelete(@Param("ids") Collection<Long> ids, @Param("deletedDate") Date deletedDate);
+
+    @Modifying
+    @Query("update User u set u.modificationSeq = :seq where u.id in :ids")
+    int updateModificationSeq(@Param("ids") Collection<Long> ids, @Param("seq") long seq);
+
+    @Query("select u.role, u.isEnabled, u.isNonLocked, count(u) from User u group by u.role, u.isEnabled, u.isNonLocked")
+    List<Object[]> countByRoleAndStatus();
+
+    @Query("select year(u.lastLoginDate), month(u.lastLoginDate), day(u.lastLoginDate), hour(u.lastLoginDate), count(u) from User u " +
+            "where u.lastLoginDate >= :since " +
+            "group by year(u.lastLoginDate), month(u.lastLoginDate), day(u.lastLoginDate), hour(u.lastLoginDate)")
+    List<Object[]> countLastLoginsByHour(@Param("since") Date since);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    boolean existsByProfileImageUrlContaining(String imagePath);
+
+    // the native queries below are the only ones that see soft deleted users
+    @Query(value = "select id from users_tb where deleted_date < :deletedBefore order by deleted_date limit :limit", nativeQuery = true)
+    List<Long> findPurgeableIds(@Param("deletedBefore") Date deletedBefore, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "delete from users_tb where id in (:ids) and deleted_date is not null", nativeQuery = true)
+    int purgeByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "select count(*) from users_tb where deleted_date is not null", nativeQuery = true)
+    long countSoftDeleted();
 }
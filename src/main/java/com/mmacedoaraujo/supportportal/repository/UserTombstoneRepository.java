@@ -0,0 +1,15 @@
+package com.mmacedoaraujo.supportportal.repository;
+
+import com.mmacedoaraujo.supportportal.domain.UserTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface UserTombstoneRepository extends JpaRepository<UserTombstone, Long> {
+
+    @Query("select t from UserTombstone t where t.modificationSeq > :seq or (t.modificationSeq = :seq and t.id > :id) order by t.modificationSeq, t.id")
+    List<UserTombstone> findChangedAfter(@Param("seq") long seq, @Param("id") long id, Pageable pageable);
+}
@@ -0,0 +1,63 @@
+package com.mmacedoaraujo.supportportal.resource;
+
+import com.mmacedoaraujo.supportportal.domain.HttpResponse;
+import com.mmacedoaraujo.supportportal.exception.ExceptionHandling;
+import com.mmacedoaraujo.supportportal.service.FlightRecorderService;
+import lombok.AllArgsConstructor;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+
+import static com.mmacedoaraujo.supportportal.constant.FlightRecorderConstant.*;
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.READ;
+import static org.springframework.http.HttpStatus.OK;
+
+@RestController
+@RequestMapping(path = "/recordings")
+@AllArgsConstructor
+public class FlightRecorderResource extends ExceptionHandling {
+
+    private final FlightRecorderService flightRecorderService;
+
+    @PostMapping("/start")
+    @PreAuthorize("hasAuthority('user:create')")
+    public ResponseEntity<HttpResponse> start(@RequestParam(value = "durationMinutes", required = false) Integer durationMinutes) throws Exception {
+        flightRecorderService.start(durationMinutes);
+        return response(OK, RECORDING_STARTED);
+    }
+
+    @PostMapping("/stop")
+    @PreAuthorize("hasAuthority('user:create')")
+    public ResponseEntity<HttpResponse> stop() throws Exception {
+        flightRecorderService.stop();
+        return response(OK, RECORDING_STOPPED);
+    }
+
+    @GetMapping("/dump")
+    @PreAuthorize("hasAuthority('user:create')")
+    public ResponseEntity<Resource> dump() throws Exception {
+        Path file = flightRecorderService.dump();
+        long size = Files.size(file);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(size)
+                .body(new InputStreamResource(Files.newInputStream(file, READ, DELETE_ON_CLOSE)));
+    }
+
+    private ResponseEntity<HttpResponse> response(HttpStatus httpStatus, String message) {
+        return new ResponseEntity<>(
+                new HttpResponse(httpStatus.value(), new Date(), httpStatus, httpStatus.getReasonPhrase().toUpperCase(), message), httpStatus);
+    }
+}
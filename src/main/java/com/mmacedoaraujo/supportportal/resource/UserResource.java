@@ -1,41 +1,74 @@
 package com.mmacedoaraujo.supportportal.resource;
 
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.mmacedoaraujo.supportportal.domain.BulkOperationResult;
+import com.mmacedoaraujo.supportportal.domain.BulkUserRequest;
 import com.mmacedoaraujo.supportportal.domain.HttpResponse;
 import com.mmacedoaraujo.supportportal.domain.User;
+import com.mmacedoaraujo.supportportal.domain.UserChangePage;
+import com.mmacedoaraujo.supportportal.domain.UserPatch;
 import com.mmacedoaraujo.supportportal.domain.UserPrincipal;
+import com.mmacedoaraujo.supportportal.domain.UserStatistics;
+import com.mmacedoaraujo.supportportal.enumeration.BulkOperation;
+import com.mmacedoaraujo.supportportal.enumeration.ImageFormat;
 import com.mmacedoaraujo.supportportal.exception.ExceptionHandling;
-import com.mmacedoaraujo.supportportal.exception.domain.EmailExistException;
-import com.mmacedoaraujo.supportportal.exception.domain.EmailNotFoundException;
-import com.mmacedoaraujo.supportportal.exception.domain.UserNotFoundException;
-import com.mmacedoaraujo.supportportal.exception.domain.UsernameExistException;
+import com.mmacedoaraujo.supportportal.exception.domain.InvalidCursorException;
+import com.mmacedoaraujo.supportportal.exception.domain.InvalidFieldException;
+import com.mmacedoaraujo.supportportal.exception.domain.TooManyRequestsException;
+import com.mmacedoaraujo.supportportal.jfr.LoginEvent;
 import com.mmacedoaraujo.supportportal.repository.UserRepository;
+import com.mmacedoaraujo.supportportal.service.BulkUserService;
+import com.mmacedoaraujo.supportportal.service.ImageCacheService;
+import com.mmacedoaraujo.supportportal.service.ImageStoreService;
+import com.mmacedoaraujo.supportportal.service.PasswordResetLimiterService;
+import com.mmacedoaraujo.supportportal.service.ThumbnailService;
 import com.mmacedoaraujo.supportportal.service.UserService;
+import com.mmacedoaraujo.supportportal.service.UserStatisticsService;
 import com.mmacedoaraujo.supportportal.utility.JWTTokenProvider;
+import com.mmacedoaraujo.supportportal.utility.SingleFlight;
+import com.mmacedoaraujo.supportportal.utility.UserETags;
+import com.mmacedoaraujo.supportportal.utility.UserFields;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.mail.MessagingException;
+import javax.servlet.http.HttpServletRequest;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.net.URLConnection;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 import static com.mmacedoaraujo.supportportal.constant.FileConstant.*;
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.FAILURE;
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.SUCCESS;
 import static com.mmacedoaraujo.supportportal.constant.SecurityConstant.JWT_TOKEN_HEADER;
+import static com.mmacedoaraujo.supportportal.utility.AsyncRequestHandler.supplyAsync;
+import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.springframework.http.HttpStatus.OK;
-import static org.springframework.http.MediaType.IMAGE_JPEG_VALUE;
+import static org.springframework.http.MediaType.*;
 
 @RestController
 @RequestMapping(path = {"/", "/users"})
@@ -46,27 +79,54 @@ public class UserResource extends ExceptionHandling {
     private final UserRepository userRepository;
 
     private final UserService userService;
+    private final BulkUserService bulkUserService;
+    private final UserStatisticsService userStatisticsService;
     private final AuthenticationManager userResourceAuthenticationManager;
     private final JWTTokenProvider jwtTokenProvider;
-
+    private final ThumbnailService thumbnailService;
+    private final ImageStoreService imageStoreService;
+    private final ImageCacheService imageCacheService;
+    private final PasswordResetLimiterService passwordResetLimiterService;
+    @Qualifier("authenticationExecutor")
+    private final ExecutorService authenticationExecutor;
+    @Qualifier("accountExecutor")
+    private final ExecutorService accountExecutor;
+    @Qualifier("imageExecutor")
+    private final ExecutorService imageExecutor;
+    @Qualifier("avatarExecutor")
+    private final ExecutorService avatarExecutor;
+    @Qualifier("imageLoadFlight")
+    private final SingleFlight<Path, ByteBuffer> imageLoadFlight;
+    @Qualifier("avatarLoadFlight")
+    private final SingleFlight<String, byte[]> avatarLoadFlight;
+    @Value("${images.avatar.base-url:" + TEMP_PROFILE_IMAGE_BASE_URL + "}")
+    private final String avatarBaseUrl;
+    @Value("${users.changes.max-page-size:500}")
+    private final int maxChangesPageSize;
+
+    // the principal is the user loadUserByUsername just read and stamped with the login date, never a coalesced lookup
+    // that may predate it and carry an old token epoch
     @PostMapping("/login")
-    public ResponseEntity<User> login(@RequestBody User user) {
-        authenticate(user.getUsername(), user.getPassword());
-        User authenticatedUser = userService.findByUsername(user.getUsername());
-        UserPrincipal userPrincipal = new UserPrincipal(authenticatedUser);
-        HttpHeaders jwtHeader = getJwtHeader(userPrincipal);
-        return new ResponseEntity<>(authenticatedUser, jwtHeader, OK);
+    public CompletableFuture<ResponseEntity<User>> login(@RequestBody User user) {
+        return supplyAsync(() -> {
+            UserPrincipal userPrincipal = (UserPrincipal) authenticate(user.getUsername(), user.getPassword()).getPrincipal();
+            User authenticatedUser = userPrincipal.getUser();
+            HttpHeaders jwtHeader = getJwtHeader(userPrincipal);
+            return new ResponseEntity<>(authenticatedUser, jwtHeader, OK);
+        }, authenticationExecutor);
     }
 
 
     @PostMapping("/register")
-    public ResponseEntity<User> register(@RequestBody User user) throws UserNotFoundException, EmailExistException, UsernameExistException, MessagingException {
-        User registeredUser = userService.register(user.getFirstName(), user.getLastName(), user.getUsername(), user.getEmail());
-        return new ResponseEntity<>(registeredUser, HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<User>> register(@RequestBody User user) {
+        return supplyAsync(() -> {
+            User registeredUser = userService.register(user.getFirstName(), user.getLastName(), user.getUsername(), user.getEmail());
+            return new ResponseEntity<>(registeredUser, HttpStatus.CREATED);
+        }, accountExecutor);
     }
 
     @PostMapping("/add")
-    public ResponseEntity<User> addNewUser(
+    public CompletableFuture<ResponseEntity<User>> addNewUser(
             @RequestParam("firstName") String firstName,
             @RequestParam("lastName") String lastName,
             @RequestParam("username") String username,
@@ -77,16 +137,17 @@ public class UserResource extends ExceptionHandling {
             @RequestParam(value = "profileImage", required = false) MultipartFile profileImage)
             throws Exception {
 
-        User newUser = userService.addNewUser(firstName, lastName, username, email, role,
-                Boolean.parseBoolean(isNonLocked), Boolean.parseBoolean(isEnabled), profileImage);
-
-        return new ResponseEntity<>(newUser, HttpStatus.CREATED);
+        return supplyAsync(() -> {
+            User newUser = userService.addNewUser(firstName, lastName, username, email, role,
+                    Boolean.parseBoolean(isNonLocked), Boolean.parseBoolean(isEnabled), profileImage);
+            return new ResponseEntity<>(newUser, HttpStatus.CREATED);
+        }, accountExecutor);
 
     }
 
     @PostMapping("/update")
     @PreAuthorize("hasAuthority('user:update')")
-    public ResponseEntity<User> update(
+    public CompletableFuture<ResponseEntity<User>> update(
             @RequestParam("currentUsername") String currentUsername,
             @RequestParam("firstName") String firstName,
             @RequestParam("lastName") String lastName,
@@ -95,36 +156,78 @@ public class UserResource extends ExceptionHandling {
             @RequestParam("role") String role,
             @RequestParam("isEnabled") String isEnabled,
             @RequestParam("isNonLocked") String isNonLocked,
-            @RequestParam(value = "profileImage", required = false) MultipartFile profileImage)
+            @RequestParam(value = "profileImage", required = false) MultipartFile profileImage,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
             throws Exception {
 
-        User updatedUser = userService.updateUser(currentUsername, firstName, lastName, username, email, role,
-                Boolean.parseBoolean(isNonLocked), Boolean.parseBoolean(isEnabled), profileImage);
+        return supplyAsync(() -> {
+            User updatedUser = userService.updateUser(currentUsername, firstName, lastName, username, email, role,
+                    Boolean.parseBoolean(isNonLocked), Boolean.parseBoolean(isEnabled), profileImage, ifMatch);
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).eTag(UserETags.of(updatedUser)).body(updatedUser);
+        }, accountExecutor);
 
-        return new ResponseEntity<>(updatedUser, HttpStatus.NO_CONTENT);
+    }
 
+    // JSON with only the properties to change, e.g. {"lastName": "Doe"}
+    @PatchMapping("/update/{username}")
+    @PreAuthorize("hasAuthority('user:update')")
+    public CompletableFuture<ResponseEntity<User>> patch(@PathVariable("username") String username, @RequestBody UserPatch patch,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return supplyAsync(() -> {
+            User patchedUser = userService.patchUser(username, patch, ifMatch);
+            return ResponseEntity.ok().eTag(UserETags.of(patchedUser)).body(patchedUser);
+        }, accountExecutor);
     }
 
     @GetMapping("/find/{username}")
     @PreAuthorize("hasAuthority('user:read')")
     public ResponseEntity<User> findByUsername(@PathVariable("username") String username) {
         User userFoundbyUsername = userService.findByUsername(username);
-
-        return new ResponseEntity<>(userFoundbyUsername, OK);
+        if (userFoundbyUsername == null) {
+            return new ResponseEntity<>(null, OK);
+        }
+        // a matching If-None-Match turns this into a 304 without serializing the body; no-cache instead of
+        // Spring Security's no-store lets browsers keep the body and revalidate it
+        return ResponseEntity.ok().eTag(UserETags.of(userFoundbyUsername)).cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT).body(userFoundbyUsername);
     }
 
+    // ?fields=username,role narrows both the columns selected and the properties serialized
     @GetMapping("/list")
     @PreAuthorize("hasAuthority('user:read')")
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> usersList = userService.getUsers();
-        return new ResponseEntity<>(usersList, OK);
+    public ResponseEntity<List<?>> getAllUsers(@RequestParam(name = "fields", required = false) String fields, WebRequest webRequest) throws InvalidFieldException {
+        List<String> selectedFields = UserFields.parse(fields);
+        String etag = userService.getUsersETag(selectedFields);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        List<?> usersList = selectedFields.isEmpty() ? userService.getUsers() : userService.getUsers(selectedFields);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT).body(usersList);
+    }
+
+    @GetMapping("/changes")
+    @PreAuthorize("hasAuthority('user:read')")
+    public ResponseEntity<UserChangePage> getChanges(@RequestParam(name = "since", required = false) String since,
+                                                     @RequestParam(name = "limit", defaultValue = "100") int limit) throws InvalidCursorException {
+        UserChangePage changes = userService.getChanges(since, Math.max(1, Math.min(limit, maxChangesPageSize)));
+        return new ResponseEntity<>(changes, OK);
     }
 
 
+    @GetMapping("/statistics")
+    @PreAuthorize("hasAuthority('user:read')")
+    public ResponseEntity<UserStatistics> getStatistics() {
+        return new ResponseEntity<>(userStatisticsService.getStatistics(), OK);
+    }
+
     @GetMapping("/resetpassword/{email}")
-    public ResponseEntity<HttpResponse> resetPassword(@PathVariable("email") String email) throws EmailNotFoundException, MessagingException {
-        userService.resetPassword(email);
-        return response(OK, EMAIL_WITH_NEW_PASSWORD_SENT + email);
+    public CompletableFuture<ResponseEntity<HttpResponse>> resetPassword(@PathVariable("email") String email, HttpServletRequest request) throws TooManyRequestsException {
+        passwordResetLimiterService.acquire(email, request.getRemoteAddr());
+        return supplyAsync(() -> {
+            userService.resetPassword(email);
+            return response(OK, EMAIL_WITH_NEW_PASSWORD_SENT + email);
+        }, accountExecutor);
     }
 
     @DeleteMapping("/delete/{id}")
@@ -134,37 +237,122 @@ public class UserResource extends ExceptionHandling {
         return response(HttpStatus.NO_CONTENT, USER_DELETED_SUCCESSFULLY);
     }
 
+    @PostMapping("/bulk/lock")
+    @PreAuthorize("hasAuthority('user:update')")
+    public CompletableFuture<ResponseEntity<BulkOperationResult>> bulkLock(@RequestBody BulkUserRequest request) {
+        return bulk(BulkOperation.LOCK, request);
+    }
+
+    @PostMapping("/bulk/unlock")
+    @PreAuthorize("hasAuthority('user:update')")
+    public CompletableFuture<ResponseEntity<BulkOperationResult>> bulkUnlock(@RequestBody BulkUserRequest request) {
+        return bulk(BulkOperation.UNLOCK, request);
+    }
+
+    @PostMapping("/bulk/role")
+    @PreAuthorize("hasAuthority('user:update')")
+    public CompletableFuture<ResponseEntity<BulkOperationResult>> bulkRole(@RequestBody BulkUserRequest request) {
+        return bulk(BulkOperation.ROLE, request);
+    }
+
+    @PostMapping("/bulk/delete")
+    @PreAuthorize("hasAuthority('user:delete')")
+    public CompletableFuture<ResponseEntity<BulkOperationResult>> bulkDelete(@RequestBody BulkUserRequest request) {
+        return bulk(BulkOperation.DELETE, request);
+    }
+
+    private CompletableFuture<ResponseEntity<BulkOperationResult>> bulk(BulkOperation operation, BulkUserRequest request) {
+        return supplyAsync(() -> new ResponseEntity<>(bulkUserService.apply(operation, request), OK), accountExecutor);
+    }
+
     @PostMapping("/updateProfileImage")
-    public ResponseEntity<User> updatePorfileImage(
+    public CompletableFuture<ResponseEntity<User>> updatePorfileImage(
             @RequestParam("username") String username,
             @RequestParam(value = "profileImage") MultipartFile profileImage)
             throws Exception {
 
-        User user = userService.updateProfileImage(username, profileImage);
-        return new ResponseEntity<>(user, HttpStatus.NO_CONTENT);
+        return supplyAsync(() -> {
+            User user = userService.updateProfileImage(username, profileImage);
+            return new ResponseEntity<>(user, HttpStatus.NO_CONTENT);
+        }, imageExecutor);
+
+    }
+
+    @PutMapping(path = "/updateProfileImage/{username}", consumes = {IMAGE_JPEG_VALUE, IMAGE_PNG_VALUE, IMAGE_GIF_VALUE, APPLICATION_OCTET_STREAM_VALUE})
+    public CompletableFuture<ResponseEntity<User>> streamProfileImage(
+            @PathVariable("username") String username,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false, defaultValue = "-1") long contentLength,
+            InputStream profileImage)
+            throws Exception {
+
+        return supplyAsync(() -> {
+            User user = userService.updateProfileImage(username, profileImage, contentLength);
+            return new ResponseEntity<>(user, HttpStatus.NO_CONTENT);
+        }, imageExecutor);
 
     }
 
     @GetMapping(path = "/image/{username}/{fileName}", produces = IMAGE_JPEG_VALUE)
-    public byte[] getProfileImage(@PathVariable("username") String username, @PathVariable("fileName") String fileName) throws IOException {
-        return Files.readAllBytes(Paths.get(USER_FOLDER + username + FORWARD_SLASH + fileName));
+    public CompletableFuture<ResponseEntity<Resource>> getProfileImage(@PathVariable("username") String username, @PathVariable("fileName") String fileName,
+                                                                       @RequestParam(value = "size", required = false) Integer size) {
+        return readImage(thumbnailService.resolveThumbnail(Paths.get(USER_FOLDER + username + FORWARD_SLASH + fileName), size))
+                .thenApply(image -> ResponseEntity.ok()
+                        .contentLength(image.remaining())
+                        .body(new InputStreamResource(new ByteBufferBackedInputStream(image))));
+    }
+
+    @GetMapping(path = "/image/blob/{hash}")
+    public CompletableFuture<ResponseEntity<Resource>> getProfileImageBlob(@PathVariable("hash") String hash,
+                                                                           @RequestParam(value = "size", required = false) Integer size) throws IOException {
+        Path original = imageStoreService.resolve(hash);
+        Path resolved = thumbnailService.resolveThumbnail(original, size);
+        // until its thumbnail exists a size is answered with the original, which must not be cached as the variant
+        boolean variant = size == null || resolved != original;
+        return readImage(resolved)
+                .thenApply(image -> {
+                    ImageFormat format = ImageFormat.fromHeader(image);
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (variant) {
+                        response.header(HttpHeaders.CACHE_CONTROL, IMMUTABLE_CACHE_CONTROL)
+                                .eTag(hash + (size == null ? EMPTY : THUMBNAIL_SEPARATOR + size));
+                    } else {
+                        response.header(HttpHeaders.CACHE_CONTROL, PENDING_THUMBNAIL_CACHE_CONTROL);
+                    }
+                    return response
+                            .contentType(format == null ? MediaType.APPLICATION_OCTET_STREAM : MediaType.parseMediaType(format.getMediaType()))
+                            .contentLength(image.remaining())
+                            .body(new InputStreamResource(new ByteBufferBackedInputStream(image)));
+                });
     }
 
     @GetMapping(path = "/image/profile/{username}", produces = IMAGE_JPEG_VALUE)
-    public byte[] getTemporaryProfileImage(@PathVariable("username") String username) throws IOException {
-        URL url = new URL("https://avatars.dicebear.com/api/micah/:" + username + ".jpg");
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
-        URLConnection conn = url.openConnection();
-        conn.setRequestProperty("User-Agent", "Firefox");
-
-        try (InputStream inputStream = conn.getInputStream()) {
-            int n = 0;
-            byte[] buffer = new byte[1024];
-            while (-1 != (n = inputStream.read(buffer))) {
-                output.write(buffer, 0, n);
+    public CompletableFuture<byte[]> getTemporaryProfileImage(@PathVariable("username") String username) {
+        return avatarLoadFlight.executeAsync(username, () -> supplyAsync(() -> {
+            URL url = new URL(avatarBaseUrl + username + DOT + JPEG_EXTENSION);
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            URLConnection conn = url.openConnection();
+            conn.setRequestProperty("User-Agent", "Firefox");
+
+            try (InputStream inputStream = conn.getInputStream()) {
+                int n = 0;
+                byte[] buffer = new byte[1024];
+                while (-1 != (n = inputStream.read(buffer))) {
+                    output.write(buffer, 0, n);
+                }
             }
+            return output.toByteArray();
+        }, avatarExecutor));
+    }
+
+    // cache hits are answered on the servlet thread, only misses go to disk on the image executor, once for all
+    // concurrent misses of one file; each caller reads the shared buffer through its own duplicate
+    private CompletableFuture<ByteBuffer> readImage(Path path) {
+        ByteBuffer cached = imageCacheService.getIfPresent(path);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
         }
-        return output.toByteArray();
+        return imageLoadFlight.executeAsync(path.toAbsolutePath().normalize(), () -> supplyAsync(() -> imageCacheService.load(path), imageExecutor))
+                .thenApply(ByteBuffer::duplicate);
     }
 
     private ResponseEntity<HttpResponse> response(HttpStatus httpStatus, String message) {
@@ -179,7 +367,24 @@ public class UserResource extends ExceptionHandling {
         return headers;
     }
 
-    private void authenticate(String username, String password) {
-        userResourceAuthenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
+    private Authentication authenticate(String username, String password) {
+        LoginEvent event = new LoginEvent();
+        event.begin();
+        String outcome = FAILURE;
+        try {
+            Authentication authentication = userResourceAuthenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
+            outcome = SUCCESS;
+            return authentication;
+        } catch (AuthenticationException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setUsername(username);
+                event.setOutcome(outcome);
+                event.commit();
+            }
+        }
     }
 }
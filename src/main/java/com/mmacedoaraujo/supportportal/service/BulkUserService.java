@@ -0,0 +1,180 @@
+package com.mmacedoaraujo.supportportal.service;
+
+import com.google.common.collect.Lists;
+import com.mmacedoaraujo.supportportal.domain.BulkChunkResult;
+import com.mmacedoaraujo.supportportal.domain.BulkOperationResult;
+import com.mmacedoaraujo.supportportal.domain.BulkUserRequest;
+import com.mmacedoaraujo.supportportal.enumeration.BulkOperation;
+import com.mmacedoaraujo.supportportal.enumeration.Role;
+import com.mmacedoaraujo.supportportal.exception.domain.InvalidBulkRequestException;
+import com.mmacedoaraujo.supportportal.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static com.mmacedoaraujo.supportportal.constant.FileConstant.USER_FOLDER;
+import static com.mmacedoaraujo.supportportal.constant.UserServiceImplConstant.*;
+
+// Admin operations over many users as set based statements: per chunk one select for the usernames and image hashes,
+// one update, and the modification sequence stamp at commit. Every chunk commits on its own, so a large request never
+// holds locks on thousands of rows, and a failure leaves the chunks before it applied and reported.
+// Token epochs and login attempts of the affected users are updated the same way a single user update does.
+@Service
+@Slf4j
+public class BulkUserService {
+
+    private final UserRepository userRepository;
+    private final ModificationSequenceService modificationSequenceService;
+    private final TokenEpochService tokenEpochService;
+    private final LoginAttemptService loginAttemptService;
+    private final ImageStoreService imageStoreService;
+    private final ImageCacheService imageCacheService;
+    private final UserStatisticsService userStatisticsService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxIds;
+
+    public BulkUserService(UserRepository userRepository, ModificationSequenceService modificationSequenceService,
+                           TokenEpochService tokenEpochService, LoginAttemptService loginAttemptService,
+                           ImageStoreService imageStoreService, ImageCacheService imageCacheService,
+                           UserStatisticsService userStatisticsService, PlatformTransactionManager transactionManager,
+                           @Value("${users.bulk.chunk-size:500}") int chunkSize,
+                           @Value("${users.bulk.max-ids:10000}") int maxIds) {
+        this.userRepository = userRepository;
+        this.modificationSequenceService = modificationSequenceService;
+        this.tokenEpochService = tokenEpochService;
+        this.loginAttemptService = loginAttemptService;
+        this.imageStoreService = imageStoreService;
+        this.imageCacheService = imageCacheService;
+        this.userStatisticsService = userStatisticsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxIds = maxIds;
+    }
+
+    public BulkOperationResult apply(BulkOperation operation, BulkUserRequest request) throws InvalidBulkRequestException {
+        Role role = operation == BulkOperation.ROLE ? getRole(request.getRole()) : null;
+        Role filterRole = request.getFilterRole() != null ? getRole(request.getFilterRole()) : null;
+        List<BulkChunkResult> chunks = new ArrayList<>();
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            if (request.getIds().size() > maxIds) {
+                throw new InvalidBulkRequestException(BULK_TOO_MANY_IDS + maxIds);
+            }
+            List<Long> ids = new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+            for (List<Long> chunkIds : Lists.partition(ids, chunkSize)) {
+                chunks.add(applyChunk(operation, role, chunkIds, chunks.size() + 1));
+            }
+        } else if (filterRole != null || request.getFilterLocked() != null) {
+            Boolean nonLocked = request.getFilterLocked() != null ? !request.getFilterLocked() : null;
+            String roleName = filterRole != null ? filterRole.name() : null;
+            PageRequest page = PageRequest.of(0, chunkSize);
+            List<Long> chunkIds = userRepository.findIdsByFilter(roleName, nonLocked, -1, page);
+            while (!chunkIds.isEmpty()) {
+                chunks.add(applyChunk(operation, role, chunkIds, chunks.size() + 1));
+                if (chunkIds.size() < chunkSize) {
+                    break;
+                }
+                chunkIds = userRepository.findIdsByFilter(roleName, nonLocked, chunkIds.get(chunkIds.size() - 1), page);
+            }
+        } else {
+            throw new InvalidBulkRequestException(BULK_TARGET_REQUIRED);
+        }
+        BulkOperationResult result = BulkOperationResult.builder()
+                .operation(operation)
+                .requested(chunks.stream().mapToInt(BulkChunkResult::getRequested).sum())
+                .affected(chunks.stream().mapToInt(BulkChunkResult::getAffected).sum())
+                .chunks(chunks)
+                .build();
+        log.info("Bulk {} affected {} of {} requested users in {} chunks", operation, result.getAffected(), result.getRequested(), chunks.size());
+        return result;
+    }
+
+    private BulkChunkResult applyChunk(BulkOperation operation, Role role, List<Long> requestedIds, int chunk) {
+        int affected = transactionTemplate.execute(status -> {
+            List<Long> ids = new ArrayList<>(requestedIds.size());
+            List<String> usernames = new ArrayList<>(requestedIds.size());
+            List<String> imageHashes = new ArrayList<>();
+            List<UserStatisticsService.Snapshot> snapshots = new ArrayList<>(requestedIds.size());
+            for (Object[] target : userRepository.findBulkTargets(requestedIds)) {
+                ids.add((Long) target[0]);
+                usernames.add((String) target[1]);
+                if (target[2] != null) {
+                    imageHashes.add((String) target[2]);
+                }
+                snapshots.add(new UserStatisticsService.Snapshot((String) target[3], (Boolean) target[4], (Boolean) target[5], (Date) target[6]));
+            }
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            long tokenEpoch = System.currentTimeMillis();
+            int updated;
+            switch (operation) {
+                case LOCK:
+                    updated = userRepository.updateNonLocked(ids, false, tokenEpoch);
+                    break;
+                case UNLOCK:
+                    updated = userRepository.updateNonLocked(ids, true, tokenEpoch);
+                    usernames.forEach(loginAttemptService::evictUserFromLoginAttemptCache);
+                    break;
+                case ROLE:
+                    updated = userRepository.updateRole(ids, role.name(), role.getAuthorities(), tokenEpoch);
+                    break;
+                default:
+                    updated = softDelete(ids, usernames, imageHashes);
+                    break;
+            }
+            if (operation != BulkOperation.DELETE) {
+                modificationSequenceService.markChanged(ids);
+            }
+            for (UserStatisticsService.Snapshot before : snapshots) {
+                userStatisticsService.changed(before, after(operation, role, before));
+            }
+            tokenEpochService.bumped(usernames, tokenEpoch);
+            return updated;
+        });
+        return BulkChunkResult.builder().chunk(chunk).requested(requestedIds.size()).affected(affected).build();
+    }
+
+    private int softDelete(List<Long> ids, List<String> usernames, List<String> imageHashes) {
+        int deleted = userRepository.softDelete(ids, new Date());
+        for (int i = 0; i < ids.size(); i++) {
+            modificationSequenceService.markDeleted(ids.get(i), usernames.get(i));
+            imageCacheService.invalidate(Paths.get(USER_FOLDER, usernames.get(i), usernames.get(i)));
+        }
+        for (String imageHash : imageHashes) {
+            imageCacheService.invalidate(imageStoreService.getBlobPath(imageHash));
+            imageStoreService.release(imageHash);
+        }
+        return deleted;
+    }
+
+    private static UserStatisticsService.Snapshot after(BulkOperation operation, Role role, UserStatisticsService.Snapshot before) {
+        switch (operation) {
+            case LOCK:
+                return new UserStatisticsService.Snapshot(before.getRole(), before.isEnabled(), false, before.getLastLoginDate());
+            case UNLOCK:
+                return new UserStatisticsService.Snapshot(before.getRole(), before.isEnabled(), true, before.getLastLoginDate());
+            case ROLE:
+                return new UserStatisticsService.Snapshot(role.name(), before.isEnabled(), before.isNonLocked(), before.getLastLoginDate());
+            default:
+                return null;
+        }
+    }
+
+    private static Role getRole(String role) throws InvalidBulkRequestException {
+        try {
+            return Role.valueOf(role.toUpperCase());
+        } catch (RuntimeException e) {
+            throw new InvalidBulkRequestException(BULK_INVALID_ROLE + role);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.mmacedoaraujo.supportportal.service;
 
+import com.mmacedoaraujo.supportportal.jfr.EmailSendEvent;
 import com.sun.mail.smtp.SMTPTransport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.mail.Message;
@@ -10,18 +14,58 @@ import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
 import java.util.Date;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import static com.mmacedoaraujo.supportportal.constant.EmailConstant.*;
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.*;
 
 @Service
 public class EmailService {
 
+    private final Timer sentTimer;
+    private final Timer failedTimer;
+    private final String smtpHost;
+    private final int smtpPort;
+    private final String smtpProtocol;
+    private final boolean smtpAuth;
+    private final boolean smtpStartTls;
+
+    public EmailService(@Value("${email.smtp.host:" + GMAIL_SMTP_SERVER + "}") String smtpHost,
+                        @Value("${email.smtp.port:" + DEFAULT_PORT + "}") int smtpPort,
+                        @Value("${email.smtp.protocol:" + SIMPLE_MAIL_TRANSFER_PROTOCOL + "}") String smtpProtocol,
+                        @Value("${email.smtp.auth:true}") boolean smtpAuth,
+                        @Value("${email.smtp.starttls:true}") boolean smtpStartTls,
+                        MeterRegistry meterRegistry) {
+        this.smtpHost = smtpHost;
+        this.smtpPort = smtpPort;
+        this.smtpProtocol = smtpProtocol;
+        this.smtpAuth = smtpAuth;
+        this.smtpStartTls = smtpStartTls;
+        this.sentTimer = Timer.builder(EMAIL_SEND_METRIC).tag(OUTCOME_TAG, SUCCESS).register(meterRegistry);
+        this.failedTimer = Timer.builder(EMAIL_SEND_METRIC).tag(OUTCOME_TAG, FAILURE).register(meterRegistry);
+    }
+
     public void sendNewPasswordEmail(String firstName, String password, String email) throws MessagingException {
-        Message message = createEmail(firstName, password, email);
-        SMTPTransport smtpTransport = (SMTPTransport) getEmailSession().getTransport(SIMPLE_MAIL_TRANSFER_PROTOCOL);
-        smtpTransport.connect(GMAIL_SMTP_SERVER, USERNAME, PASSWORD);
-        smtpTransport.sendMessage(message, message.getAllRecipients());
-        smtpTransport.close();
+        EmailSendEvent event = new EmailSendEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean sent = false;
+        try {
+            Message message = createEmail(firstName, password, email);
+            SMTPTransport smtpTransport = (SMTPTransport) getEmailSession().getTransport(smtpProtocol);
+            smtpTransport.connect(smtpHost, smtpPort, USERNAME, PASSWORD);
+            smtpTransport.sendMessage(message, message.getAllRecipients());
+            smtpTransport.close();
+            sent = true;
+        } finally {
+            (sent ? sentTimer : failedTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.end();
+            if (event.shouldCommit()) {
+                event.setSmtpHost(smtpHost);
+                event.setOutcome(sent ? SUCCESS : FAILURE);
+                event.commit();
+            }
+        }
     }
 
     private Message createEmail(String firstName, String password, String email) throws MessagingException {
@@ -39,11 +83,11 @@ public class EmailService {
 
     private Session getEmailSession() {
         Properties properties = System.getProperties();
-        properties.put(SMTP_HOST, GMAIL_SMTP_SERVER);
-        properties.put(SMTP_AUTH, true);
-        properties.put(SMTP_PORT, DEFAULT_PORT);
-        properties.put(SMTP_STARTTLS_ENABLE, true);
-        properties.put(SMTP_STARTTLS_REQUIRED, true);
+        properties.put(SMTP_HOST, smtpHost);
+        properties.put(SMTP_AUTH, smtpAuth);
+        properties.put(SMTP_PORT, smtpPort);
+        properties.put(SMTP_STARTTLS_ENABLE, smtpStartTls);
+        properties.put(SMTP_STARTTLS_REQUIRED, smtpStartTls);
 
         return Session.getInstance(properties, null);
     }
@@ -0,0 +1,91 @@
+package com.mmacedoaraujo.supportportal.service;
+
+import com.mmacedoaraujo.supportportal.exception.domain.RecordingStateException;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+import static com.mmacedoaraujo.supportportal.constant.FlightRecorderConstant.*;
+
+// one bounded in-process recording at a time: the JFR settings profile plus the application events,
+// capped by age and size on disk and by a maximum duration
+@Service
+@Slf4j
+public class FlightRecorderService {
+
+    private final String settings;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private final Duration maxDuration;
+    private Recording recording;
+
+    public FlightRecorderService(@Value("${jfr.recording.settings:default}") String settings,
+                                 @Value("${jfr.recording.max-age-minutes:10}") long maxAgeMinutes,
+                                 @Value("${jfr.recording.max-size-megabytes:64}") long maxSizeMegabytes,
+                                 @Value("${jfr.recording.max-duration-minutes:60}") long maxDurationMinutes) {
+        this.settings = settings;
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.maxSizeBytes = maxSizeMegabytes * 1024 * 1024;
+        this.maxDuration = Duration.ofMinutes(maxDurationMinutes);
+    }
+
+    public synchronized void start(Integer durationMinutes) throws RecordingStateException, IOException, ParseException {
+        if (isRunning()) {
+            throw new RecordingStateException(RECORDING_ALREADY_RUNNING);
+        }
+        close();
+        Recording newRecording = new Recording(Configuration.getConfiguration(settings));
+        for (String eventName : EVENT_NAMES) {
+            newRecording.enable(eventName);
+        }
+        newRecording.setName(RECORDING_NAME);
+        newRecording.setToDisk(true);
+        newRecording.setMaxAge(maxAge);
+        newRecording.setMaxSize(maxSizeBytes);
+        newRecording.setDuration(durationMinutes == null ? maxDuration
+                : Duration.ofMinutes(Math.min(Math.max(durationMinutes, 1), maxDuration.toMinutes())));
+        newRecording.start();
+        recording = newRecording;
+        log.info(RECORDING_STARTED + " with settings " + settings + " for " + recording.getDuration());
+    }
+
+    public synchronized void stop() throws RecordingStateException {
+        if (!isRunning()) {
+            throw new RecordingStateException(NO_RUNNING_RECORDING);
+        }
+        recording.stop();
+        log.info(RECORDING_STOPPED);
+    }
+
+    // snapshot of the running or last stopped recording, the caller owns and deletes the file
+    public synchronized Path dump() throws RecordingStateException, IOException {
+        if (recording == null || recording.getState() == RecordingState.CLOSED) {
+            throw new RecordingStateException(NO_RECORDING);
+        }
+        Path file = Files.createTempFile(RECORDING_FILE_PREFIX, RECORDING_FILE_EXTENSION);
+        recording.dump(file);
+        return file;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+}
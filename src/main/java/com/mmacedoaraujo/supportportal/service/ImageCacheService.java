@@ -0,0 +1,152 @@
+package com.mmacedoaraujo.supportportal.service;
+
+import com.mmacedoaraujo.supportportal.utility.FrequencySketch;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.mmacedoaraujo.supportportal.constant.FileConstant.*;
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.IMAGE_IO_METRIC;
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.OPERATION_TAG;
+import static java.nio.file.StandardOpenOption.READ;
+
+@Service
+public class ImageCacheService {
+
+    private final LinkedHashMap<String, ByteBuffer> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch frequencySketch;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Timer readTimer;
+    private long residentBytes;
+
+    public ImageCacheService(@Value("${images.cache.max-bytes:67108864}") long maxBytes,
+                             @Value("${images.cache.max-entry-bytes:1048576}") long maxEntryBytes,
+                             @Value("${images.cache.expected-entries:4096}") int expectedEntries,
+                             MeterRegistry meterRegistry) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.min(maxEntryBytes, maxBytes);
+        this.frequencySketch = new FrequencySketch(expectedEntries);
+        FunctionCounter.builder(IMAGE_CACHE_REQUESTS_METRIC, hits, LongAdder::sum).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder(IMAGE_CACHE_REQUESTS_METRIC, misses, LongAdder::sum).tag("result", "miss").register(meterRegistry);
+        this.readTimer = Timer.builder(IMAGE_IO_METRIC).tag(OPERATION_TAG, "read").register(meterRegistry);
+        Gauge.builder(IMAGE_CACHE_HIT_RATIO_METRIC, this, ImageCacheService::getHitRatio).register(meterRegistry);
+        Gauge.builder(IMAGE_CACHE_RESIDENT_BYTES_METRIC, this, ImageCacheService::getResidentBytes).baseUnit("bytes").register(meterRegistry);
+    }
+
+    public ByteBuffer get(Path path) throws IOException {
+        ByteBuffer cached = getIfPresent(path);
+        return cached != null ? cached : load(path);
+    }
+
+    public ByteBuffer getIfPresent(Path path) {
+        String key = getKey(path);
+        ByteBuffer cached;
+        synchronized (entries) {
+            frequencySketch.increment(key);
+            cached = entries.get(key);
+        }
+        if (cached == null) {
+            return null;
+        }
+        hits.increment();
+        return cached.duplicate();
+    }
+
+    public ByteBuffer load(Path path) throws IOException {
+        misses.increment();
+        long start = System.nanoTime();
+        ByteBuffer image = read(path);
+        readTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (image.isDirect()) {
+            admit(getKey(path), image);
+        }
+        return image.duplicate();
+    }
+
+    public void invalidate(Path pathPrefix) {
+        String keyPrefix = getKey(pathPrefix);
+        synchronized (entries) {
+            Iterator<Map.Entry<String, ByteBuffer>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, ByteBuffer> entry = iterator.next();
+                if (entry.getKey().startsWith(keyPrefix)) {
+                    residentBytes -= entry.getValue().capacity();
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long requestCount = hitCount + misses.sum();
+        return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+    }
+
+    public long getResidentBytes() {
+        synchronized (entries) {
+            return residentBytes;
+        }
+    }
+
+    private String getKey(Path path) {
+        return path.toAbsolutePath().normalize().toString();
+    }
+
+    // images over the entry limit are read onto a transient heap buffer and never admitted
+    private ByteBuffer read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            long size = channel.size();
+            ByteBuffer buffer = size <= maxEntryBytes ? ByteBuffer.allocateDirect((int) size) : ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) == -1) {
+                    break;
+                }
+            }
+            buffer.flip();
+            return buffer.asReadOnlyBuffer();
+        }
+    }
+
+    // TinyLFU admission: the candidate only replaces LRU victims that were requested less often than itself
+    private void admit(String key, ByteBuffer image) {
+        synchronized (entries) {
+            if (entries.containsKey(key)) {
+                return;
+            }
+            int candidateFrequency = frequencySketch.frequency(key);
+            long required = residentBytes + image.capacity() - maxBytes;
+            Iterator<Map.Entry<String, ByteBuffer>> victims = entries.entrySet().iterator();
+            for (long freed = 0; freed < required; ) {
+                Map.Entry<String, ByteBuffer> victim = victims.next();
+                if (frequencySketch.frequency(victim.getKey()) >= candidateFrequency) {
+                    return;
+                }
+                freed += victim.getValue().capacity();
+            }
+            victims = entries.entrySet().iterator();
+            while (residentBytes + image.capacity() > maxBytes) {
+                residentBytes -= victims.next().getValue().capacity();
+                victims.remove();
+            }
+            entries.put(key, image);
+            residentBytes += image.capacity();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.mmacedoaraujo.supportportal.service;
+
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+import com.mmacedoaraujo.supportportal.domain.ImageBlob;
+import com.mmacedoaraujo.supportportal.exception.domain.ImageTooLargeException;
+import com.mmacedoaraujo.supportportal.exception.domain.NotAnImageFileException;
+import com.mmacedoaraujo.supportportal.repository.ImageBlobRepository;
+import com.mmacedoaraujo.supportportal.utility.ImageUploadInputStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static com.mmacedoaraujo.supportportal.constant.FileConstant.*;
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.IMAGE_IO_METRIC;
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.OPERATION_TAG;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+@Service
+@Slf4j
+@Transactional
+public class ImageStoreService {
+
+    private final ImageBlobRepository imageBlobRepository;
+    private final ThumbnailService thumbnailService;
+    private final ImageCacheService imageCacheService;
+    private final Path storeFolder;
+    private final long gcGracePeriod;
+    private final int gcBatchSize;
+    private final long maxUploadBytes;
+    private final Timer writeTimer;
+
+    public ImageStoreService(ImageBlobRepository imageBlobRepository, ThumbnailService thumbnailService, ImageCacheService imageCacheService,
+                             @Value("${images.store.gc-grace-period-minutes:60}") long gcGracePeriodMinutes,
+                             @Value("${images.store.gc-batch-size:100}") int gcBatchSize,
+                             @Value("${images.upload.max-bytes:5242880}") long maxUploadBytes,
+                             MeterRegistry meterRegistry) {
+        this.imageBlobRepository = imageBlobRepository;
+        this.thumbnailService = thumbnailService;
+        this.imageCacheService = imageCacheService;
+        this.storeFolder = Paths.get(IMAGE_STORE_FOLDER).toAbsolutePath().normalize();
+        this.gcGracePeriod = TimeUnit.MINUTES.toMillis(gcGracePeriodMinutes);
+        this.gcBatchSize = gcBatchSize;
+        this.maxUploadBytes = maxUploadBytes;
+        this.writeTimer = Timer.builder(IMAGE_IO_METRIC).tag(OPERATION_TAG, "write").register(meterRegistry);
+    }
+
+    public String store(InputStream inputStream, long declaredLength) throws IOException, NotAnImageFileException {
+        if (declaredLength > maxUploadBytes) {
+            throw new ImageTooLargeException(IMAGE_TOO_LARGE + maxUploadBytes);
+        }
+        long start = System.nanoTime();
+        InputStream imageInputStream = new ImageUploadInputStream(inputStream, maxUploadBytes);
+        Path temporaryFolder = storeFolder.resolve(IMAGE_STORE_TEMP_FOLDER);
+        Files.createDirectories(temporaryFolder);
+        Path temporary = Files.createTempFile(temporaryFolder, null, null);
+        try {
+            MessageDigest digest = newDigest();
+            try (OutputStream outputStream = new DigestOutputStream(Files.newOutputStream(temporary), digest)) {
+                ByteStreams.copy(imageInputStream, outputStream);
+            }
+            String hash = BaseEncoding.base16().lowerCase().encode(digest.digest());
+            // reference before rename: a concurrent collectGarbage() either waits on the row lock or has already finished
+            imageBlobRepository.retain(hash, Files.size(temporary), new Date());
+            Path blob = getBlobPath(hash);
+            try {
+                Files.createDirectories(blob.getParent());
+                Files.move(temporary, blob, REPLACE_EXISTING, ATOMIC_MOVE);
+            } catch (IOException e) {
+                // @Transactional commits on checked exceptions, so give back the reference to a blob that was never written
+                imageBlobRepository.release(hash, new Date());
+                throw e;
+            }
+            writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.info(BLOB_STORED + hash);
+            return hash;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    public void release(String hash) {
+        if (hash != null) {
+            imageBlobRepository.release(hash, new Date());
+        }
+    }
+
+    public Path resolve(String hash) throws FileNotFoundException {
+        if (hash == null || !hash.matches(IMAGE_HASH_PATTERN)) {
+            throw new FileNotFoundException(INVALID_IMAGE_HASH + hash);
+        }
+        return getBlobPath(hash);
+    }
+
+    public Path getBlobPath(String hash) {
+        return storeFolder
+                .resolve(hash.substring(0, IMAGE_SHARD_LENGTH))
+                .resolve(hash.substring(IMAGE_SHARD_LENGTH, 2 * IMAGE_SHARD_LENGTH))
+                .resolve(hash);
+    }
+
+    @Scheduled(fixedDelayString = "${images.store.gc-interval-millis:600000}")
+    public void collectGarbage() throws IOException {
+        Date releasedBefore = new Date(System.currentTimeMillis() - gcGracePeriod);
+        for (String hash : imageBlobRepository.findUnreferencedHashes(releasedBefore, PageRequest.of(0, gcBatchSize))) {
+            ImageBlob blob = imageBlobRepository.findByHashForUpdate(hash);
+            if (blob != null && blob.getReferenceCount() == 0) {
+                Path blobPath = getBlobPath(hash);
+                imageCacheService.invalidate(blobPath);
+                thumbnailService.deleteThumbnails(blobPath);
+                Files.deleteIfExists(blobPath);
+                imageBlobRepository.delete(blob);
+                log.info(BLOB_DELETED + hash);
+            }
+        }
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(IMAGE_HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
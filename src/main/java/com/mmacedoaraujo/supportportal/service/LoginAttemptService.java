@@ -4,11 +4,16 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.mmacedoaraujo.supportportal.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
 
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.DECISION_TAG;
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.LOGIN_ATTEMPT_METRIC;
+
 @Service
 public class LoginAttemptService {
 
@@ -16,8 +21,12 @@ public class LoginAttemptService {
     public static final int ATTEMPT_INCREMENT = 1;
     private LoadingCache<String, Integer> loginAttemptCache;
     private final UserRepository userRepository;
+    private final Counter failureCounter;
+    private final Counter evictionCounter;
+    private final Counter allowedCounter;
+    private final Counter blockedCounter;
 
-    public LoginAttemptService(UserRepository userRepository) {
+    public LoginAttemptService(UserRepository userRepository, MeterRegistry meterRegistry) {
         super();
         loginAttemptCache = CacheBuilder
                 .newBuilder()
@@ -29,10 +38,15 @@ public class LoginAttemptService {
                     }
                 });
         this.userRepository = userRepository;
+        this.failureCounter = decisionCounter("failure-recorded", meterRegistry);
+        this.evictionCounter = decisionCounter("evicted", meterRegistry);
+        this.allowedCounter = decisionCounter("allowed", meterRegistry);
+        this.blockedCounter = decisionCounter("blocked", meterRegistry);
     }
 
     public void evictUserFromLoginAttemptCache(String username) {
         loginAttemptCache.invalidate(username);
+        evictionCounter.increment();
     }
 
     public void addUserToLoginAttemptCache(String username) {
@@ -43,16 +57,23 @@ public class LoginAttemptService {
             e.printStackTrace();
         }
         loginAttemptCache.put(username, attempts);
+        failureCounter.increment();
     }
 
     public boolean hasExceededMaxAttempt(String username) {
         try {
-            return loginAttemptCache.get(username) >= MAXIMUM_NUMBER_OF_ATTEMPTS;
+            boolean exceeded = loginAttemptCache.get(username) >= MAXIMUM_NUMBER_OF_ATTEMPTS;
+            (exceeded ? blockedCounter : allowedCounter).increment();
+            return exceeded;
         } catch (ExecutionException e) {
             e.printStackTrace();
         }
         return false;
     }
+
+    private static Counter decisionCounter(String decision, MeterRegistry meterRegistry) {
+        return Counter.builder(LOGIN_ATTEMPT_METRIC).tag(DECISION_TAG, decision).register(meterRegistry);
+    }
 }
 
 
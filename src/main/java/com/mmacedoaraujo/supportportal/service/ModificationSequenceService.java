@@ -0,0 +1,97 @@
+package com.mmacedoaraujo.supportportal.service;
+
+import com.mmacedoaraujo.supportportal.domain.ModificationSequence;
+import com.mmacedoaraujo.supportportal.domain.User;
+import com.mmacedoaraujo.supportportal.domain.UserTombstone;
+import com.mmacedoaraujo.supportportal.repository.ModificationSequenceRepository;
+import com.mmacedoaraujo.supportportal.repository.UserRepository;
+import com.mmacedoaraujo.supportportal.repository.UserTombstoneRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static com.mmacedoaraujo.supportportal.constant.UserServiceImplConstant.USER_MODIFICATION_SEQUENCE_ID;
+
+// Stamps changed users and deleted user tombstones with the modification sequence the change feed pages by.
+// Numbers come from a counter row locked until the writing transaction commits, so writes commit in sequence order and a
+// reader that has seen n never later finds a smaller one appear. To keep that serialized section short the numbers are
+// only drawn right before commit, after slow work such as hashing, SMTP or image storage is done.
+// Users changed by a set based update share one number; the feed orders by (sequence, id), so they still page in order.
+@Service
+@AllArgsConstructor
+public class ModificationSequenceService {
+
+    private final ModificationSequenceRepository modificationSequenceRepository;
+    private final UserTombstoneRepository userTombstoneRepository;
+    private final UserRepository userRepository;
+
+    public void markChanged(User user) {
+        getPendingChanges().changed.add(user);
+    }
+
+    public void markChanged(Collection<Long> userIds) {
+        getPendingChanges().changedIds.addAll(userIds);
+    }
+
+    public void markDeleted(User user) {
+        getPendingChanges().changed.remove(user);
+        markDeleted(user.getId(), user.getUsername());
+    }
+
+    public void markDeleted(Long userId, String username) {
+        getPendingChanges().deleted.add(UserTombstone.builder().userId(userId).username(username).build());
+    }
+
+    private PendingChanges getPendingChanges() {
+        PendingChanges pendingChanges = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pendingChanges == null) {
+            pendingChanges = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pendingChanges);
+            TransactionSynchronizationManager.registerSynchronization(pendingChanges);
+        }
+        return pendingChanges;
+    }
+
+    private class PendingChanges implements TransactionSynchronization {
+
+        private final Set<User> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final List<Long> changedIds = new ArrayList<>();
+        private final List<UserTombstone> deleted = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (changed.isEmpty() && changedIds.isEmpty() && deleted.isEmpty()) {
+                return;
+            }
+            ModificationSequence sequence = modificationSequenceRepository.findByIdForUpdate(USER_MODIFICATION_SEQUENCE_ID);
+            long value = sequence.getCurrentValue();
+            for (User user : changed) {
+                user.setModificationSeq(++value);
+            }
+            if (!changedIds.isEmpty()) {
+                userRepository.updateModificationSeq(changedIds, ++value);
+            }
+            Date now = new Date();
+            for (UserTombstone tombstone : deleted) {
+                tombstone.setModificationSeq(++value);
+                tombstone.setDeletedDate(now);
+            }
+            userTombstoneRepository.saveAll(deleted);
+            sequence.setCurrentValue(value);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ModificationSequenceService.this);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.mmacedoaraujo.supportportal.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.mmacedoaraujo.supportportal.exception.domain.TooManyRequestsException;
+import com.mmacedoaraujo.supportportal.utility.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.DECISION_TAG;
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.PASSWORD_RESET_BUCKETS_METRIC;
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.PASSWORD_RESET_LIMIT_METRIC;
+import static com.mmacedoaraujo.supportportal.constant.UserServiceImplConstant.TOO_MANY_PASSWORD_RESETS;
+
+// Throttles password resets per target email and per client address before any hashing, database or mail work.
+// Buckets live in size bounded caches and are dropped once idle for longer than they take to refill, by which time a
+// fresh bucket is indistinguishable from the old one.
+@Service
+public class PasswordResetLimiterService {
+
+    private final Cache<String, TokenBucket> emailBuckets;
+    private final Cache<String, TokenBucket> clientBuckets;
+    private final int emailCapacity;
+    private final long emailRefillSeconds;
+    private final int clientCapacity;
+    private final long clientRefillSeconds;
+    private final Counter allowedCounter;
+    private final Counter emailLimitedCounter;
+    private final Counter clientLimitedCounter;
+
+    public PasswordResetLimiterService(@Value("${security.reset-password.email.capacity:3}") int emailCapacity,
+                                       @Value("${security.reset-password.email.refill-seconds:600}") long emailRefillSeconds,
+                                       @Value("${security.reset-password.client.capacity:10}") int clientCapacity,
+                                       @Value("${security.reset-password.client.refill-seconds:60}") long clientRefillSeconds,
+                                       @Value("${security.reset-password.max-keys:100000}") long maxKeys,
+                                       MeterRegistry meterRegistry) {
+        this.emailCapacity = emailCapacity;
+        this.emailRefillSeconds = emailRefillSeconds;
+        this.clientCapacity = clientCapacity;
+        this.clientRefillSeconds = clientRefillSeconds;
+        this.emailBuckets = buckets("email", maxKeys, emailCapacity * emailRefillSeconds, meterRegistry);
+        this.clientBuckets = buckets("client", maxKeys, clientCapacity * clientRefillSeconds, meterRegistry);
+        this.allowedCounter = decisionCounter("allowed", meterRegistry);
+        this.emailLimitedCounter = decisionCounter("email-limited", meterRegistry);
+        this.clientLimitedCounter = decisionCounter("client-limited", meterRegistry);
+    }
+
+    public void acquire(String email, String clientAddress) throws TooManyRequestsException {
+        long clientWait = clientBuckets.asMap().computeIfAbsent(clientAddress, key -> new TokenBucket(clientCapacity, clientRefillSeconds, TimeUnit.SECONDS)).tryTake();
+        if (clientWait > 0) {
+            clientLimitedCounter.increment();
+            throw new TooManyRequestsException(TOO_MANY_PASSWORD_RESETS, toRetryAfterSeconds(clientWait));
+        }
+        long emailWait = emailBuckets.asMap().computeIfAbsent(email.toLowerCase(Locale.ROOT), key -> new TokenBucket(emailCapacity, emailRefillSeconds, TimeUnit.SECONDS)).tryTake();
+        if (emailWait > 0) {
+            emailLimitedCounter.increment();
+            throw new TooManyRequestsException(TOO_MANY_PASSWORD_RESETS, toRetryAfterSeconds(emailWait));
+        }
+        allowedCounter.increment();
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private static Cache<String, TokenBucket> buckets(String key, long maxKeys, long idleSeconds, MeterRegistry meterRegistry) {
+        Cache<String, TokenBucket> cache = CacheBuilder.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleSeconds, TimeUnit.SECONDS)
+                .build();
+        Gauge.builder(PASSWORD_RESET_BUCKETS_METRIC, cache, Cache::size).tag("key", key).register(meterRegistry);
+        return cache;
+    }
+
+    private static Counter decisionCounter(String decision, MeterRegistry meterRegistry) {
+        return Counter.builder(PASSWORD_RESET_LIMIT_METRIC).tag(DECISION_TAG, decision).register(meterRegistry);
+    }
+}
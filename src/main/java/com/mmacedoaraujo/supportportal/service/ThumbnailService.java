@@ -0,0 +1,167 @@
+package com.mmacedoaraujo.supportportal.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+import static com.mmacedoaraujo.supportportal.constant.FileConstant.*;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+@Service
+@Slf4j
+public class ThumbnailService {
+
+    private final ThreadPoolTaskExecutor thumbnailExecutor;
+    private final long maxPixels;
+
+    public ThumbnailService(@Qualifier("thumbnailExecutor") ThreadPoolTaskExecutor thumbnailExecutor,
+                            @Value("${images.thumbnail.max-pixels:25000000}") long maxPixels) {
+        this.thumbnailExecutor = thumbnailExecutor;
+        this.maxPixels = maxPixels;
+    }
+
+    public void generateThumbnails(Path original) {
+        if (hasThumbnails(original)) {
+            return;
+        }
+        try {
+            thumbnailExecutor.execute(() -> createThumbnails(original));
+        } catch (TaskRejectedException e) {
+            log.warn(THUMBNAIL_QUEUE_FULL + original);
+        }
+    }
+
+    public void deleteThumbnails(Path original) throws IOException {
+        for (int size : THUMBNAIL_SIZES) {
+            Files.deleteIfExists(getThumbnailPath(original, size));
+        }
+    }
+
+    // returns the original itself as long as the thumbnail has not been generated, callers compare with it to tell
+    // whether they got the variant they asked for
+    public Path resolveThumbnail(Path original, Integer size) {
+        if (size == null) {
+            return original;
+        }
+        Path thumbnail = getThumbnailPath(original, getThumbnailSize(size));
+        return Files.exists(thumbnail) ? thumbnail : original;
+    }
+
+    private void createThumbnails(Path original) {
+        try {
+            BufferedImage source = read(original);
+            if (source == null) {
+                return;
+            }
+            BufferedImage square = cropToSquare(source);
+            for (int size : THUMBNAIL_SIZES) {
+                writeJpeg(scale(square, size), getThumbnailPath(original, size));
+            }
+            log.info(THUMBNAILS_CREATED + original);
+        } catch (IOException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+    // A file of a few kilobytes can declare a bitmap of gigabytes, so the dimensions are read from the header and checked
+    // before anything is decoded. Large images are subsampled while decoding, down to twice the largest thumbnail.
+    BufferedImage read(Path original) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                log.error(UNSUPPORTED_IMAGE_FORMAT + original);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long width = reader.getWidth(0);
+                long height = reader.getHeight(0);
+                if (width * height > maxPixels) {
+                    log.warn(IMAGE_DIMENSIONS_TOO_LARGE + original);
+                    return null;
+                }
+                int subsampling = (int) Math.max(1, Math.min(width, height) / (2L * THUMBNAIL_SIZES[THUMBNAIL_SIZES.length - 1]));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private boolean hasThumbnails(Path original) {
+        for (int size : THUMBNAIL_SIZES) {
+            if (!Files.exists(getThumbnailPath(original, size))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int getThumbnailSize(int requestedSize) {
+        for (int size : THUMBNAIL_SIZES) {
+            if (size >= requestedSize) {
+                return size;
+            }
+        }
+        return THUMBNAIL_SIZES[THUMBNAIL_SIZES.length - 1];
+    }
+
+    private Path getThumbnailPath(Path original, int size) {
+        String fileName = original.getFileName().toString();
+        int extensionIndex = fileName.lastIndexOf(DOT);
+        String baseName = extensionIndex > 0 ? fileName.substring(0, extensionIndex) : fileName;
+        return original.resolveSibling(baseName + THUMBNAIL_SEPARATOR + size + DOT + JPEG_EXTENSION);
+    }
+
+    private BufferedImage cropToSquare(BufferedImage source) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        int x = (source.getWidth() - side) / 2;
+        int y = (source.getHeight() - side) / 2;
+        return source.getSubimage(x, y, side, side);
+    }
+
+    private BufferedImage scale(BufferedImage source, int size) {
+        BufferedImage target = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, size, size);
+            graphics.drawImage(source, 0, 0, size, size, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), null);
+        try {
+            ImageIO.write(image, JPEG_EXTENSION, temporary.toFile());
+            Files.move(temporary, target, REPLACE_EXISTING, ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
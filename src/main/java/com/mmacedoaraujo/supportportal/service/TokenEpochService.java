@@ -0,0 +1,107 @@
+package com.mmacedoaraujo.supportportal.service;
+
+import com.google.common.collect.Lists;
+import com.mmacedoaraujo.supportportal.domain.User;
+import com.mmacedoaraujo.supportportal.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.TOKEN_EPOCH_ENTRIES_METRIC;
+
+// Tokens carry the epoch of their user at issue time and are only accepted while it is not older than the current one.
+// Epochs are read from the database once per username and then kept in memory; local bumps are applied on commit and
+// the scheduled refresh picks up bumps made by other instances, querying only the cached usernames in chunks.
+@Service
+public class TokenEpochService {
+
+    private final ConcurrentHashMap<String, Long> epochs = new ConcurrentHashMap<>();
+    private final UserRepository userRepository;
+    private final int refreshChunkSize;
+
+    public TokenEpochService(UserRepository userRepository, MeterRegistry meterRegistry,
+                             @Value("${security.token-epoch.refresh-chunk-size:500}") int refreshChunkSize) {
+        this.userRepository = userRepository;
+        this.refreshChunkSize = refreshChunkSize;
+        Gauge.builder(TOKEN_EPOCH_ENTRIES_METRIC, epochs, Map::size).register(meterRegistry);
+    }
+
+    public boolean isCurrent(String username, long tokenEpoch) {
+        Long epoch = epochs.get(username);
+        if (epoch == null) {
+            epoch = epochs.merge(username, loadEpoch(username), Math::max);
+        }
+        return tokenEpoch >= epoch;
+    }
+
+    // epochs are millisecond timestamps, so a user deleted and registered again never reuses an old epoch
+    public void bump(User user) {
+        long epoch = Math.max(user.getTokenEpoch() + 1, System.currentTimeMillis());
+        user.setTokenEpoch(epoch);
+        publish(user.getUsername(), epoch);
+    }
+
+    public void revoke(String username) {
+        publish(username, System.currentTimeMillis());
+    }
+
+    // for set based updates that already wrote epoch to the rows of these users
+    public void bumped(Collection<String> usernames, long epoch) {
+        afterCommit(() -> usernames.forEach(username -> epochs.merge(username, epoch, Math::max)));
+    }
+
+    @Scheduled(fixedDelayString = "${security.token-epoch.refresh-millis:30000}")
+    public void refresh() {
+        List<String> cached = new ArrayList<>(epochs.keySet());
+        for (List<String> usernames : Lists.partition(cached, refreshChunkSize)) {
+            Set<String> existing = new HashSet<>();
+            for (Object[] row : userRepository.findTokenEpochsByUsernames(usernames)) {
+                String username = (String) row[0];
+                existing.add(username);
+                epochs.computeIfPresent(username, (key, epoch) -> Math.max(epoch, (Long) row[1]));
+            }
+            long now = System.currentTimeMillis();
+            for (String username : usernames) {
+                if (!existing.contains(username)) {
+                    epochs.merge(username, now, Math::max);
+                }
+            }
+        }
+    }
+
+    // a username that no longer exists revokes every token issued for it
+    private long loadEpoch(String username) {
+        Long epoch = userRepository.findTokenEpochByUsername(username);
+        return epoch != null ? epoch : System.currentTimeMillis();
+    }
+
+    private void publish(String username, long epoch) {
+        afterCommit(() -> epochs.merge(username, epoch, Math::max));
+    }
+
+    // waits for the commit, so a rolled back bump never rejects tokens that are still valid
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
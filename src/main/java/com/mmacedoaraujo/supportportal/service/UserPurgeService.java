@@ -0,0 +1,167 @@
+package com.mmacedoaraujo.supportportal.service;
+
+import com.mmacedoaraujo.supportportal.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static com.mmacedoaraujo.supportportal.constant.FileConstant.FORWARD_SLASH;
+import static com.mmacedoaraujo.supportportal.constant.FileConstant.USER_FOLDER;
+import static com.mmacedoaraujo.supportportal.constant.FileConstant.USER_IMAGE_PATH;
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.*;
+
+// Hard deletes soft deleted users once the grace period is over, one short transaction per batch with a pause in
+// between, so mass offboarding never holds locks that live traffic waits on. A run stops after max-batches and leaves
+// the rest to the next one. Then it walks USER_FOLDER and removes the image folders no existing user owns or links to.
+@Service
+@Slf4j
+public class UserPurgeService {
+
+    private final UserRepository userRepository;
+    private final ImageCacheService imageCacheService;
+    private final TransactionTemplate transactionTemplate;
+    private final Path userFolder;
+    private final long gracePeriod;
+    private final int batchSize;
+    private final int maxBatches;
+    private final long batchPauseMillis;
+    private final Counter purgedUsersCounter;
+    private final Counter purgedFoldersCounter;
+    private final AtomicLong backlog = new AtomicLong();
+
+    public UserPurgeService(UserRepository userRepository, ImageCacheService imageCacheService, PlatformTransactionManager transactionManager,
+                            @Value("${users.purge.grace-period-minutes:10}") long gracePeriodMinutes,
+                            @Value("${users.purge.batch-size:100}") int batchSize,
+                            @Value("${users.purge.max-batches:50}") int maxBatches,
+                            @Value("${users.purge.batch-pause-millis:100}") long batchPauseMillis,
+                            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.imageCacheService = imageCacheService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userFolder = Paths.get(USER_FOLDER).toAbsolutePath().normalize();
+        this.gracePeriod = TimeUnit.MINUTES.toMillis(gracePeriodMinutes);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.batchPauseMillis = batchPauseMillis;
+        this.purgedUsersCounter = Counter.builder(USER_PURGE_METRIC).tag(TYPE_TAG, "user").register(meterRegistry);
+        this.purgedFoldersCounter = Counter.builder(USER_PURGE_METRIC).tag(TYPE_TAG, "image-folder").register(meterRegistry);
+        Gauge.builder(USER_PURGE_BACKLOG_METRIC, backlog, AtomicLong::get)
+                .description("Soft deleted users not purged yet, as of the last purge run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${users.purge.interval-millis:60000}", initialDelayString = "${users.purge.interval-millis:60000}")
+    public void purge() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        int users = purgeUsers();
+        int folders = purgeImageFolders();
+        backlog.set(userRepository.countSoftDeleted());
+        if (users > 0 || folders > 0) {
+            log.info("Purged {} deleted users and {} image folders in {} ms, {} deleted users left", users, folders,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), backlog.get());
+        }
+    }
+
+    private int purgeUsers() throws InterruptedException {
+        Date deletedBefore = new Date(System.currentTimeMillis() - gracePeriod);
+        int purged = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer batchPurged = transactionTemplate.execute(status -> {
+                List<Long> ids = userRepository.findPurgeableIds(deletedBefore, batchSize);
+                return ids.isEmpty() ? 0 : userRepository.purgeByIds(ids);
+            });
+            purged += batchPurged;
+            purgedUsersCounter.increment(batchPurged);
+            if (batchPurged < batchSize) {
+                break;
+            }
+            Thread.sleep(batchPauseMillis);
+        }
+        return purged;
+    }
+
+    // a DirectoryStream reads the folder lazily, so even a very large USER_FOLDER is never listed in memory at once;
+    // usernames are checked a batch at a time
+    private int purgeImageFolders() throws IOException {
+        if (!Files.isDirectory(userFolder)) {
+            return 0;
+        }
+        int purged = 0;
+        List<Path> batch = new ArrayList<>(batchSize);
+        try (DirectoryStream<Path> folders = Files.newDirectoryStream(userFolder, Files::isDirectory)) {
+            for (Path folder : folders) {
+                batch.add(folder);
+                if (batch.size() == batchSize) {
+                    purged += purgeOrphanedFolders(batch);
+                    batch.clear();
+                }
+            }
+        }
+        return purged + purgeOrphanedFolders(batch);
+    }
+
+    private int purgeOrphanedFolders(List<Path> folders) throws IOException {
+        if (folders.isEmpty()) {
+            return 0;
+        }
+        List<String> usernames = folders.stream().map(folder -> folder.getFileName().toString()).collect(Collectors.toList());
+        // usernames compare case insensitively in MySQL
+        Set<String> existing = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        existing.addAll(userRepository.findExistingUsernames(usernames));
+        int purged = 0;
+        for (Path folder : folders) {
+            String name = folder.getFileName().toString();
+            // a renamed user keeps the image url of the old folder name until the next upload; orphans are rare, so
+            // checking them one by one costs little
+            if (!existing.contains(name) && !userRepository.existsByProfileImageUrlContaining(USER_IMAGE_PATH + name + FORWARD_SLASH)) {
+                deleteRecursively(folder);
+                purgedFoldersCounter.increment();
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    private void deleteRecursively(Path folder) throws IOException {
+        Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                imageCacheService.invalidate(file);
+                Files.deleteIfExists(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path directory, IOException e) throws IOException {
+                if (e != null) {
+                    throw e;
+                }
+                Files.deleteIfExists(directory);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
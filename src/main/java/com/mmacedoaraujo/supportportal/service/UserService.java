@@ -1,15 +1,21 @@
 package com.mmacedoaraujo.supportportal.service;
 
 import com.mmacedoaraujo.supportportal.domain.User;
+import com.mmacedoaraujo.supportportal.domain.UserChangePage;
+import com.mmacedoaraujo.supportportal.domain.UserPatch;
 import com.mmacedoaraujo.supportportal.exception.domain.EmailExistException;
 import com.mmacedoaraujo.supportportal.exception.domain.EmailNotFoundException;
+import com.mmacedoaraujo.supportportal.exception.domain.InvalidCursorException;
+import com.mmacedoaraujo.supportportal.exception.domain.PreconditionFailedException;
 import com.mmacedoaraujo.supportportal.exception.domain.UserNotFoundException;
 import com.mmacedoaraujo.supportportal.exception.domain.UsernameExistException;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.mail.MessagingException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 public interface UserService {
 
@@ -17,17 +23,27 @@ public interface UserService {
 
     List<User> getUsers();
 
+    List<Map<String, Object>> getUsers(List<String> fields);
+
+    String getUsersETag(List<String> fields);
+
+    UserChangePage getChanges(String cursor, int limit) throws InvalidCursorException;
+
     User findByUsername(String username);
 
     User findByEmail(String email);
 
     User addNewUser(String firstName, String lastName, String username, String email, String role, boolean isNonLocked, boolean isEnabled, MultipartFile profileImage) throws Exception;
 
-    User updateUser(String currentUsername, String newFirstName, String newLastName, String newUsername, String newEmail, String role, boolean isNonLocked, boolean isEnabled, MultipartFile profileImage) throws Exception;
+    User updateUser(String currentUsername, String newFirstName, String newLastName, String newUsername, String newEmail, String role, boolean isNonLocked, boolean isEnabled, MultipartFile profileImage, String ifMatch) throws Exception;
+
+    User patchUser(String currentUsername, UserPatch patch, String ifMatch) throws UserNotFoundException, UsernameExistException, EmailExistException, PreconditionFailedException;
 
     void deleteUser(Long id);
 
     void resetPassword(String email) throws EmailNotFoundException, MessagingException;
 
     User updateProfileImage(String username, MultipartFile profileImage) throws Exception;
+
+    User updateProfileImage(String username, InputStream profileImage, long contentLength) throws Exception;
 }
@@ -0,0 +1,253 @@
+package com.mmacedoaraujo.supportportal.service;
+
+import com.mmacedoaraujo.supportportal.domain.User;
+import com.mmacedoaraujo.supportportal.domain.UserStatistics;
+import com.mmacedoaraujo.supportportal.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.USER_STATISTICS_DRIFT_METRIC;
+
+// User counts for the admin dashboard, kept in LongAdders so writers on many threads never contend on one counter and a
+// read sums a fixed number of them. Every write reports the user as it was before and after, and the difference is
+// applied once the transaction commits. Last logins are counted per hour for the last week, so the day and week
+// windows slide without touching the database.
+// The counters are loaded with two grouped queries once the application is ready, so users inserted by application
+// runners such as the load test seeder are counted, and compared with them again on a schedule: writes from other
+// instances, set based updates racing a single user update or a failed after commit step all leave drift behind, which
+// the reconciliation corrects.
+@Service
+@Slf4j
+public class UserStatisticsService {
+
+    private static final String TOTAL = "total";
+    private static final String ENABLED = "enabled";
+    private static final String LOCKED = "locked";
+    private static final String ROLE_PREFIX = "role:";
+    private static final String LOGIN_HOUR_PREFIX = "login-hour:";
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final int LOGIN_HOURS = 7 * 24;
+
+    private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    // keys with deltas of transactions that have not completed yet, counted per key and removed at zero
+    private final ConcurrentHashMap<String, Integer> pending = new ConcurrentHashMap<>();
+    private final UserRepository userRepository;
+    private final Counter driftCounter;
+    private volatile Date reconciledAt;
+
+    public UserStatisticsService(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.driftCounter = Counter.builder(USER_STATISTICS_DRIFT_METRIC)
+                .description("Counts corrected by the reconciliation with the database")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+    }
+
+    // the state of a user as far as the statistics are concerned, null for a user that does not exist (yet)
+    public static Snapshot snapshot(User user) {
+        return user != null ? new Snapshot(user.getRole(), user.isEnabled(), user.isNonLocked(), user.getLastLoginDate()) : null;
+    }
+
+    public void changed(Snapshot before, Snapshot after) {
+        if (before == null && after == null) {
+            return;
+        }
+        Map<String, Long> deltas = new HashMap<>();
+        long now = System.currentTimeMillis();
+        addKeys(deltas, before, -1, now);
+        addKeys(deltas, after, 1, now);
+        deltas.values().removeIf(delta -> delta == 0);
+        if (!deltas.isEmpty()) {
+            applyAfterCommit(deltas);
+        }
+    }
+
+    public UserStatistics getStatistics() {
+        long total = sum(TOTAL);
+        long enabled = sum(ENABLED);
+        Map<String, Long> byRole = new TreeMap<>();
+        counters.forEach((key, counter) -> {
+            if (key.startsWith(ROLE_PREFIX)) {
+                long count = counter.sum();
+                if (count != 0) {
+                    byRole.put(key.substring(ROLE_PREFIX.length()), count);
+                }
+            }
+        });
+        long currentHour = hourOf(System.currentTimeMillis());
+        long loggedInLastDay = 0;
+        long loggedInLastWeek = 0;
+        for (int hoursAgo = 0; hoursAgo < LOGIN_HOURS; hoursAgo++) {
+            long count = sum(LOGIN_HOUR_PREFIX + (currentHour - hoursAgo));
+            if (hoursAgo < 24) {
+                loggedInLastDay += count;
+            }
+            loggedInLastWeek += count;
+        }
+        return UserStatistics.builder()
+                .total(total)
+                .enabled(enabled)
+                .disabled(total - enabled)
+                .locked(sum(LOCKED))
+                .byRole(byRole)
+                .loggedInLastDay(loggedInLastDay)
+                .loggedInLastWeek(loggedInLastWeek)
+                .reconciledAt(reconciledAt)
+                .build();
+    }
+
+    // Counters are read before and after the queries; one that moved in between had a write racing the queries, which
+    // either did or did not see it, so it is left alone until the next run instead of being corrected the wrong way.
+    // The same goes for a key still pending after the queries: its write may be committed and seen by them while its
+    // delta is not applied yet. Pending keys are read before the counters, so a delta applied after that read belongs
+    // to a key that is skipped or to a write the queries did not see.
+    @Scheduled(fixedDelayString = "${users.statistics.reconcile-millis:300000}", initialDelayString = "${users.statistics.reconcile-millis:300000}")
+    public void reconcile() {
+        long now = System.currentTimeMillis();
+        boolean loaded = reconciledAt != null;
+        Map<String, Long> before = current();
+        Map<String, Long> database = load(now);
+        Set<String> pendingKeys = new HashSet<>(pending.keySet());
+        Map<String, Long> after = current();
+        Set<String> keys = new HashSet<>(database.keySet());
+        keys.addAll(after.keySet());
+        long drift = 0;
+        for (String key : keys) {
+            long expected = database.getOrDefault(key, 0L);
+            long actual = after.getOrDefault(key, 0L);
+            if (expected != actual && actual == before.getOrDefault(key, 0L) && !pendingKeys.contains(key)) {
+                add(key, expected - actual);
+                drift += Math.abs(expected - actual);
+            }
+        }
+        long oldestHour = hourOf(now) - LOGIN_HOURS;
+        counters.keySet().removeIf(key -> key.startsWith(LOGIN_HOUR_PREFIX) && Long.parseLong(key.substring(LOGIN_HOUR_PREFIX.length())) <= oldestHour);
+        reconciledAt = new Date(now);
+        if (drift > 0 && loaded) {
+            driftCounter.increment(drift);
+            log.info("User statistics reconciliation corrected a drift of {}", drift);
+        }
+    }
+
+    private Map<String, Long> load(long now) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : userRepository.countByRoleAndStatus()) {
+            long count = (Long) row[3];
+            merge(counts, TOTAL, count);
+            merge(counts, ROLE_PREFIX + row[0], count);
+            if ((Boolean) row[1]) {
+                merge(counts, ENABLED, count);
+            }
+            if (!(Boolean) row[2]) {
+                merge(counts, LOCKED, count);
+            }
+        }
+        // grouped by the hour fields of the stored date, which is written in the server's time zone
+        Calendar calendar = Calendar.getInstance();
+        long oldestHour = hourOf(now) - LOGIN_HOURS;
+        for (Object[] row : userRepository.countLastLoginsByHour(new Date(now - (LOGIN_HOURS + 1) * HOUR))) {
+            calendar.clear();
+            calendar.set(((Number) row[0]).intValue(), ((Number) row[1]).intValue() - 1, ((Number) row[2]).intValue(), ((Number) row[3]).intValue(), 0);
+            long hour = hourOf(calendar.getTimeInMillis());
+            if (hour > oldestHour) {
+                merge(counts, LOGIN_HOUR_PREFIX + hour, (Long) row[4]);
+            }
+        }
+        return counts;
+    }
+
+    private Map<String, Long> current() {
+        Map<String, Long> current = new HashMap<>();
+        counters.forEach((key, counter) -> current.put(key, counter.sum()));
+        return current;
+    }
+
+    private static void addKeys(Map<String, Long> deltas, Snapshot snapshot, long sign, long now) {
+        if (snapshot == null) {
+            return;
+        }
+        merge(deltas, TOTAL, sign);
+        merge(deltas, ROLE_PREFIX + snapshot.role, sign);
+        if (snapshot.enabled) {
+            merge(deltas, ENABLED, sign);
+        }
+        if (!snapshot.nonLocked) {
+            merge(deltas, LOCKED, sign);
+        }
+        if (snapshot.lastLoginDate != null && hourOf(snapshot.lastLoginDate.getTime()) > hourOf(now) - LOGIN_HOURS) {
+            merge(deltas, LOGIN_HOUR_PREFIX + hourOf(snapshot.lastLoginDate.getTime()), sign);
+        }
+    }
+
+    // hours of the local clock, the same ones the database groups by, also in zones with a half hour offset
+    private static long hourOf(long time) {
+        return (time + TimeZone.getDefault().getOffset(time)) / HOUR;
+    }
+
+    private static void merge(Map<String, Long> counts, String key, long count) {
+        counts.merge(key, count, Long::sum);
+    }
+
+    private void add(String key, long delta) {
+        counters.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+    }
+
+    private long sum(String key) {
+        LongAdder counter = counters.get(key);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    // a rolled back write never reaches the counters; its keys are pending until the transaction completes either way
+    private void applyAfterCommit(Map<String, Long> deltas) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deltas.forEach(this::add);
+            return;
+        }
+        deltas.keySet().forEach(key -> pending.merge(key, 1, Integer::sum));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deltas.forEach(UserStatisticsService.this::add);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                deltas.keySet().forEach(key -> pending.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null));
+            }
+        });
+    }
+
+    @AllArgsConstructor
+    @Getter
+    public static final class Snapshot {
+        private final String role;
+        private final boolean enabled;
+        private final boolean nonLocked;
+        private final Date lastLoginDate;
+    }
+}
@@ -1,46 +1,68 @@
 package com.mmacedoaraujo.supportportal.service.impl;
 
 import com.mmacedoaraujo.supportportal.domain.User;
+import com.mmacedoaraujo.supportportal.domain.UserChange;
+import com.mmacedoaraujo.supportportal.domain.UserChangePage;
+import com.mmacedoaraujo.supportportal.domain.UserPatch;
+import com.mmacedoaraujo.supportportal.domain.UserTombstone;
 import com.mmacedoaraujo.supportportal.domain.UserPrincipal;
+import com.mmacedoaraujo.supportportal.enumeration.ChangeType;
 import com.mmacedoaraujo.supportportal.enumeration.Role;
 import com.mmacedoaraujo.supportportal.exception.domain.EmailExistException;
 import com.mmacedoaraujo.supportportal.exception.domain.EmailNotFoundException;
+import com.mmacedoaraujo.supportportal.exception.domain.InvalidCursorException;
+import com.mmacedoaraujo.supportportal.exception.domain.NotAnImageFileException;
+import com.mmacedoaraujo.supportportal.exception.domain.PreconditionFailedException;
 import com.mmacedoaraujo.supportportal.exception.domain.UserNotFoundException;
 import com.mmacedoaraujo.supportportal.exception.domain.UsernameExistException;
 import com.mmacedoaraujo.supportportal.mapper.UserMapper;
 import com.mmacedoaraujo.supportportal.repository.UserRepository;
+import com.mmacedoaraujo.supportportal.repository.UserTombstoneRepository;
 import com.mmacedoaraujo.supportportal.service.EmailService;
+import com.mmacedoaraujo.supportportal.service.ImageCacheService;
+import com.mmacedoaraujo.supportportal.service.ImageStoreService;
 import com.mmacedoaraujo.supportportal.service.LoginAttemptService;
+import com.mmacedoaraujo.supportportal.service.ModificationSequenceService;
+import com.mmacedoaraujo.supportportal.service.ThumbnailService;
+import com.mmacedoaraujo.supportportal.service.TokenEpochService;
 import com.mmacedoaraujo.supportportal.service.UserService;
+import com.mmacedoaraujo.supportportal.service.UserStatisticsService;
+import com.mmacedoaraujo.supportportal.utility.ChangeFeedCursor;
+import com.mmacedoaraujo.supportportal.utility.SingleFlight;
+import com.mmacedoaraujo.supportportal.utility.UserETags;
+import com.mmacedoaraujo.supportportal.utility.UserFields;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.mail.MessagingException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import javax.persistence.Tuple;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Paths;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static com.mmacedoaraujo.supportportal.constant.FileConstant.*;
 import static com.mmacedoaraujo.supportportal.constant.UserServiceImplConstant.*;
 import static com.mmacedoaraujo.supportportal.enumeration.Role.ROLE_USER;
-import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
-import static org.springframework.http.MediaType.*;
 
 @Service
 @AllArgsConstructor
@@ -51,13 +73,18 @@ public class UserServiceImpl implements UserService, UserDetailsService {
 
     private final EmailService emailService;
     private final LoginAttemptService loginAttemptService;
+    private final ThumbnailService thumbnailService;
+    private final ImageStoreService imageStoreService;
+    private final ImageCacheService imageCacheService;
+    private final TokenEpochService tokenEpochService;
+    private final ModificationSequenceService modificationSequenceService;
+    private final UserStatisticsService userStatisticsService;
 
     private final UserRepository userRepository;
-
-    @Bean
-    public BCryptPasswordEncoder encoder() {
-        return new BCryptPasswordEncoder();
-    }
+    private final UserTombstoneRepository userTombstoneRepository;
+    private final PasswordEncoder passwordEncoder;
+    @Qualifier("userLookupFlight")
+    private final SingleFlight<String, User> userLookupFlight;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -66,10 +93,12 @@ public class UserServiceImpl implements UserService, UserDetailsService {
             log.error(USER_NOT_FOUND_BY_USERNAME + username);
             throw new UsernameNotFoundException(USER_NOT_FOUND_BY_USERNAME + username);
         } else {
+            UserStatisticsService.Snapshot before = UserStatisticsService.snapshot(user);
             validateLoginAttempt(user);
             user.setLastLoginDate(user.getLastLoginDate());
             user.setLastLoginDate(new Date());
-            userRepository.save(user);
+            save(user);
+            userStatisticsService.changed(before, UserStatisticsService.snapshot(user));
             UserPrincipal userPrincipal = new UserPrincipal(user);
             log.info("Returning found user by username: " + username);
             return userPrincipal;
@@ -81,8 +110,9 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     public User register(String firstName, String lastName, String username, String email) throws UserNotFoundException, EmailExistException, UsernameExistException, MessagingException {
         validateNewUsernameAndEmail(EMPTY, username, email);
         String password = generatePassword();
-        User user = User.builder().userId(generateUserId()).firstName(firstName).lastName(lastName).username(username).email(email).joinDate(new Date()).password(encodePassword(password)).isEnabled(true).isNonLocked(true).role(ROLE_USER.name()).authorities(ROLE_USER.getAuthorities()).profileImageUrl(getTemporaryProfileImageUrl(username)).build();
-        userRepository.save(user);
+        User user = User.builder().userId(generateUserId()).firstName(firstName).lastName(lastName).username(username).email(email).joinDate(new Date()).password(encodePassword(password)).isEnabled(true).isNonLocked(true).tokenEpoch(System.currentTimeMillis()).role(ROLE_USER.name()).authorities(ROLE_USER.getAuthorities()).profileImageUrl(getTemporaryProfileImageUrl(username)).build();
+        save(user);
+        userStatisticsService.changed(null, UserStatisticsService.snapshot(user));
         emailService.sendNewPasswordEmail(firstName, password, email);
         return user;
     }
@@ -91,10 +121,11 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     public User addNewUser(String firstName, String lastName, String username, String email, String role, boolean isNonLocked, boolean isActive, MultipartFile profileImage) throws Exception {
         validateNewUsernameAndEmail(EMPTY, username, email);
         String password = generatePassword();
-        User user = User.builder().userId(generateUserId()).firstName(firstName).lastName(lastName).username(username).email(email).joinDate(new Date()).password(encodePassword(password)).isEnabled(true).isNonLocked(true).role(getRoleEnumName(role).name()).authorities(getRoleEnumName(role).getAuthorities()).profileImageUrl(getTemporaryProfileImageUrl(username)).build();
+        User user = User.builder().userId(generateUserId()).firstName(firstName).lastName(lastName).username(username).email(email).joinDate(new Date()).password(encodePassword(password)).isEnabled(true).isNonLocked(true).tokenEpoch(System.currentTimeMillis()).role(getRoleEnumName(role).name()).authorities(getRoleEnumName(role).getAuthorities()).profileImageUrl(getTemporaryProfileImageUrl(username)).build();
 
 
-        userRepository.save(user);
+        save(user);
+        userStatisticsService.changed(null, UserStatisticsService.snapshot(user));
         emailService.sendNewPasswordEmail(firstName, password, email);
         saveProfileImage(user, profileImage);
         return user;
@@ -102,8 +133,17 @@ public class UserServiceImpl implements UserService, UserDetailsService {
 
 
     @Override
-    public User updateUser(String currentUsername, String newFirstName, String newLastName, String newUsername, String newEmail, String role, boolean isNonLocked, boolean isActive, MultipartFile profileImage) throws Exception {
+    public User updateUser(String currentUsername, String newFirstName, String newLastName, String newUsername, String newEmail, String role, boolean isNonLocked, boolean isActive, MultipartFile profileImage, String ifMatch) throws Exception {
         User currentUser = validateNewUsernameAndEmail(currentUsername, newUsername, newEmail);
+        if (ifMatch != null && !UserETags.matches(ifMatch, currentUser)) {
+            throw new PreconditionFailedException(USER_MODIFIED);
+        }
+        boolean usernameChanged = !StringUtils.equals(currentUser.getUsername(), newUsername);
+        boolean revokesTokens = usernameChanged
+                || !StringUtils.equalsIgnoreCase(currentUser.getRole(), role)
+                || currentUser.isEnabled() != isActive
+                || currentUser.isNonLocked() != isNonLocked;
+        UserStatisticsService.Snapshot before = UserStatisticsService.snapshot(currentUser);
         User newInformationUser = new User();
         newInformationUser.setFirstName(newFirstName);
         newInformationUser.setLastName(newLastName);
@@ -114,17 +154,81 @@ public class UserServiceImpl implements UserService, UserDetailsService {
         newInformationUser.setRole(getRoleEnumName(role).name());
         newInformationUser.setAuthorities(getRoleEnumName(role).getAuthorities());
 
-        User updatedUser = UserMapper.INSTANCE.updateUser(newInformationUser, findByUsername(currentUsername));
+        User updatedUser = UserMapper.INSTANCE.updateUser(newInformationUser, userRepository.findByUsername(currentUsername));
+        if (usernameChanged) {
+            tokenEpochService.revoke(currentUsername);
+        }
+        if (revokesTokens) {
+            tokenEpochService.bump(currentUser);
+        }
 
-        userRepository.save(currentUser);
+        save(currentUser);
+        userStatisticsService.changed(before, UserStatisticsService.snapshot(currentUser));
         saveProfileImage(currentUser, profileImage);
         return currentUser;
     }
 
+    // Applies only the properties present in the patch. The uniqueness checks only run for a username or email that
+    // actually changes, and a patch that changes nothing is not written at all, so it keeps the version and the ETag.
     @Override
-    public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+    public User patchUser(String currentUsername, UserPatch patch, String ifMatch) throws UserNotFoundException, UsernameExistException, EmailExistException, PreconditionFailedException {
+        User user = userRepository.findByUsername(currentUsername);
+        if (user == null) {
+            throw new UserNotFoundException(USER_NOT_FOUND_BY_USERNAME + currentUsername);
+        }
+        if (ifMatch != null && !UserETags.matches(ifMatch, user)) {
+            throw new PreconditionFailedException(USER_MODIFIED);
+        }
+        boolean usernameChanged = patch.getUsername() != null && !StringUtils.equals(user.getUsername(), patch.getUsername());
+        if (usernameChanged && isOtherUser(userRepository.findByUsername(patch.getUsername()), user)) {
+            throw new UsernameExistException(USERNAME_ALREADY_EXISTS);
+        }
+        if (patch.getEmail() != null && !StringUtils.equals(user.getEmail(), patch.getEmail())
+                && isOtherUser(userRepository.findByEmail(patch.getEmail()), user)) {
+            throw new EmailExistException(EMAIL_ALREADY_EXISTS);
+        }
+        UserPatch current = UserMapper.INSTANCE.toPatch(user);
+        UserStatisticsService.Snapshot before = UserStatisticsService.snapshot(user);
+        UserMapper.INSTANCE.patchUser(patch, user);
+        if (patch.getRole() != null) {
+            Role role = getRoleEnumName(patch.getRole());
+            if (!role.name().equals(user.getRole())) {
+                user.setRole(role.name());
+                user.setAuthorities(role.getAuthorities());
+            }
+        }
+        UserPatch patched = UserMapper.INSTANCE.toPatch(user);
+        if (patched.equals(current)) {
+            return user;
+        }
+        if (usernameChanged) {
+            tokenEpochService.revoke(currentUsername);
+        }
+        if (usernameChanged
+                || !StringUtils.equals(current.getRole(), patched.getRole())
+                || !current.getEnabled().equals(patched.getEnabled())
+                || !current.getNonLocked().equals(patched.getNonLocked())) {
+            tokenEpochService.bump(user);
+        }
+        save(user);
+        userStatisticsService.changed(before, UserStatisticsService.snapshot(user));
+        return user;
+    }
 
+    // soft delete: the row is hidden from every query right away and removed later by UserPurgeService, in small batches
+    // away from the request path
+    @Override
+    public void deleteUser(Long id) {
+        User user = userRepository.findById(id).orElse(null);
+        if (user != null) {
+            evictProfileImage(user);
+            imageStoreService.release(user.getProfileImageHash());
+            tokenEpochService.revoke(user.getUsername());
+            user.setDeletedDate(new Date());
+            userRepository.save(user);
+            modificationSequenceService.markDeleted(user);
+            userStatisticsService.changed(UserStatisticsService.snapshot(user), null);
+        }
     }
 
     @Override
@@ -135,7 +239,8 @@ public class UserServiceImpl implements UserService, UserDetailsService {
         }
         String newPassword = generatePassword();
         userByEmail.setPassword(encodePassword(newPassword));
-        userRepository.save(userByEmail);
+        tokenEpochService.bump(userByEmail);
+        save(userByEmail);
         emailService.sendNewPasswordEmail(userByEmail.getFirstName(), newPassword, userByEmail.getEmail());
 
     }
@@ -149,45 +254,123 @@ public class UserServiceImpl implements UserService, UserDetailsService {
 
 
     @Override
+    public User updateProfileImage(String username, InputStream profileImage, long contentLength) throws Exception {
+        User user = validateNewUsernameAndEmail(username, null, null);
+        saveProfileImage(user, profileImage, contentLength);
+        return user;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<User> getUsers() {
         return userRepository.findAll();
     }
 
+    // only the columns of the requested fields are selected, and each user is serialized as a map holding just those
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getUsers(List<String> fields) {
+        List<String> attributes = fields.stream().map(UserFields::attributeOf).collect(Collectors.toList());
+        List<Map<String, Object>> users = new ArrayList<>();
+        for (Tuple tuple : userRepository.findAllAttributes(attributes)) {
+            Map<String, Object> user = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                user.put(fields.get(i), tuple.get(attributes.get(i)));
+            }
+            users.add(user);
+        }
+        return users;
+    }
+
+    // users and tombstones are read in one transaction and merged by (sequence, id); a user changed several times since
+    // the cursor shows up once, at its latest position
+    @Override
+    @Transactional(readOnly = true)
+    public UserChangePage getChanges(String cursor, int limit) throws InvalidCursorException {
+        ChangeFeedCursor position = ChangeFeedCursor.decode(cursor);
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<User> users = userRepository.findChangedAfter(position.getModificationSeq(), position.getId(), page);
+        List<UserTombstone> tombstones = userTombstoneRepository.findChangedAfter(position.getModificationSeq(), position.getId(), page);
+        List<UserChange> changes = new ArrayList<>(limit);
+        int userIndex = 0;
+        int tombstoneIndex = 0;
+        while (changes.size() < limit && (userIndex < users.size() || tombstoneIndex < tombstones.size())) {
+            User user = userIndex < users.size() ? users.get(userIndex) : null;
+            UserTombstone tombstone = tombstoneIndex < tombstones.size() ? tombstones.get(tombstoneIndex) : null;
+            if (tombstone == null || (user != null && new ChangeFeedCursor(user.getModificationSeq(), user.getId()).isBefore(tombstone.getModificationSeq(), tombstone.getId()))) {
+                changes.add(UserChange.builder().type(ChangeType.UPSERT).id(user.getId()).username(user.getUsername()).user(user).build());
+                position = new ChangeFeedCursor(user.getModificationSeq(), user.getId());
+                userIndex++;
+            } else {
+                changes.add(UserChange.builder().type(ChangeType.DELETE).id(tombstone.getUserId()).username(tombstone.getUsername()).build());
+                position = new ChangeFeedCursor(tombstone.getModificationSeq(), tombstone.getId());
+                tombstoneIndex++;
+            }
+        }
+        boolean hasMore = userIndex < users.size() || tombstoneIndex < tombstones.size();
+        return UserChangePage.builder().changes(changes).cursor(position.encode()).hasMore(hasMore).build();
+    }
+
     @Override
+    @Transactional(readOnly = true)
+    public String getUsersETag(List<String> fields) {
+        Object[] listVersion = userRepository.findListVersion().get(0);
+        return UserETags.ofList((Long) listVersion[0], (Long) listVersion[1], fields);
+    }
+
+    // Concurrent lookups of one username share a single query. Runs outside a transaction so callers waiting on
+    // another one's query do not hold a connection meanwhile, and the user returned may be shared between them, so it
+    // is for reading only; the write paths look users up through the repository.
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public User findByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return userLookupFlight.execute(username, () -> userRepository.findByUsername(username));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
 
 
+    private User save(User user) {
+        User saved = userRepository.save(user);
+        modificationSequenceService.markChanged(saved);
+        return saved;
+    }
+
     private String getTemporaryProfileImageUrl(String username) {
         return ServletUriComponentsBuilder.fromCurrentContextPath().path(DEFAULT_USER_IMAGE_PATH + username + FORWARD_SLASH).toUriString();
     }
 
-    private void saveProfileImage(User user, MultipartFile profileImage) throws Exception {
+    private void saveProfileImage(User user, MultipartFile profileImage) throws IOException, NotAnImageFileException {
         if (profileImage != null) {
-            if (!Arrays.asList(IMAGE_JPEG_VALUE, IMAGE_PNG_VALUE, IMAGE_GIF_VALUE).contains(profileImage.getContentType())) {
-                throw new Exception("AAAA");
-            }
-            Path userFolder = Paths.get(USER_FOLDER + user.getUsername()).toAbsolutePath().normalize();
-            if (!Files.exists(userFolder)) {
-                Files.createDirectories(userFolder);
-                log.info(DIRECTORY_CREATED + userFolder);
-            }
-            Files.deleteIfExists(Paths.get(userFolder + user.getUsername() + DOT + JPEG_EXTENSION));
-            Files.copy(profileImage.getInputStream(), userFolder.resolve(user.getUsername() + DOT + JPEG_EXTENSION), REPLACE_EXISTING);
-            user.setProfileImageUrl(setProfileImageUrl(user.getUsername()));
-            userRepository.save(user);
+            saveProfileImage(user, profileImage.getInputStream(), profileImage.getSize());
             log.info(FILE_SAVED_IN_FILE_SYSTEM + profileImage.getOriginalFilename());
         }
     }
 
-    private String setProfileImageUrl(String username) {
-        return ServletUriComponentsBuilder.fromCurrentContextPath().path(USER_IMAGE_PATH + username + FORWARD_SLASH + username + DOT + JPEG_EXTENSION).toUriString();
+    private void saveProfileImage(User user, InputStream profileImage, long contentLength) throws IOException, NotAnImageFileException {
+        String previousHash = user.getProfileImageHash();
+        evictProfileImage(user);
+        String hash = imageStoreService.store(profileImage, contentLength);
+        user.setProfileImageHash(hash);
+        user.setProfileImageUrl(setProfileImageUrl(hash));
+        save(user);
+        imageStoreService.release(previousHash);
+        thumbnailService.generateThumbnails(imageStoreService.resolve(hash));
+    }
+
+    private void evictProfileImage(User user) {
+        if (user.getProfileImageHash() != null) {
+            imageCacheService.invalidate(imageStoreService.getBlobPath(user.getProfileImageHash()));
+        }
+        imageCacheService.invalidate(Paths.get(USER_FOLDER, user.getUsername(), user.getUsername()));
+    }
+
+    private String setProfileImageUrl(String hash) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath().path(BLOB_IMAGE_PATH + hash).toUriString();
     }
 
     private Role getRoleEnumName(String role) {
@@ -195,7 +378,7 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     }
 
     private String encodePassword(String password) {
-        return encoder().encode(password);
+        return passwordEncoder.encode(password);
     }
 
     private String generatePassword() {
@@ -210,6 +393,7 @@ public class UserServiceImpl implements UserService, UserDetailsService {
         if (user.isNonLocked()) {
             if (loginAttemptService.hasExceededMaxAttempt(user.getUsername())) {
                 user.setNonLocked(false);
+                tokenEpochService.bump(user);
             } else {
                 user.setNonLocked(true);
             }
@@ -218,11 +402,15 @@ public class UserServiceImpl implements UserService, UserDetailsService {
         }
     }
 
+    private static boolean isOtherUser(User found, User user) {
+        return found != null && !found.getId().equals(user.getId());
+    }
+
     private User validateNewUsernameAndEmail(String currentUsername, String newUsername, String newEmail) throws UserNotFoundException, UsernameExistException, EmailExistException {
-        User userByNewUsername = findByUsername(newUsername);
+        User userByNewUsername = userRepository.findByUsername(newUsername);
         User userByNewEmail = findByEmail(newEmail);
         if (StringUtils.isNotBlank(currentUsername)) {
-            User currentUser = findByUsername(currentUsername);
+            User currentUser = userRepository.findByUsername(currentUsername);
             if (currentUser == null) {
                 throw new UserNotFoundException(USER_NOT_FOUND_BY_USERNAME + currentUsername);
             }
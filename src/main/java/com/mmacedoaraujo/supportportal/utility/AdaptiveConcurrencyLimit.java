@@ -0,0 +1,81 @@
+package com.mmacedoaraujo.supportportal.utility;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.mmacedoaraujo.supportportal.constant.AdmissionConstant.BACKOFF_RATIO;
+import static com.mmacedoaraujo.supportportal.constant.AdmissionConstant.BASELINE_DRIFT;
+
+// AIMD concurrency limit driven by latency. The baseline is the lowest latency of the previous window of samples, allowed
+// to creep up slowly so a permanently slower backend is eventually accepted. A sample slower than baseline * tolerance,
+// or one that failed for overload, cuts the limit once per round trip; otherwise a busy limit grows by one per limit samples.
+// Acquiring is lock free, samples are folded in under the monitor.
+public class AdaptiveConcurrencyLimit {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final int windowSize;
+    private volatile double limit;
+    private long baselineRtt = Long.MAX_VALUE;
+    private long windowMinRtt = Long.MAX_VALUE;
+    private int windowSamples;
+    private long lastDecrease;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, int windowSize) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowSize = windowSize;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.lastDecrease = System.nanoTime();
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long startNanos, boolean overloaded) {
+        long endNanos = System.nanoTime();
+        int inFlightAtEnd = inFlight.getAndDecrement();
+        onSample(startNanos, endNanos, inFlightAtEnd, overloaded);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long startNanos, long endNanos, int inFlightAtEnd, boolean overloaded) {
+        long rtt = endNanos - startNanos;
+        if (!overloaded) {
+            windowMinRtt = Math.min(windowMinRtt, rtt);
+            if (++windowSamples >= windowSize) {
+                baselineRtt = baselineRtt == Long.MAX_VALUE ? windowMinRtt : Math.min(windowMinRtt, (long) (baselineRtt * BASELINE_DRIFT));
+                windowMinRtt = Long.MAX_VALUE;
+                windowSamples = 0;
+            }
+        }
+        boolean tooSlow = baselineRtt != Long.MAX_VALUE && rtt > baselineRtt * tolerance;
+        if (overloaded || tooSlow) {
+            // requests admitted before the last cut already saw the old limit, they must not cut it again
+            if (startNanos - lastDecrease > 0) {
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                lastDecrease = endNanos;
+            }
+        } else if (inFlightAtEnd * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+}
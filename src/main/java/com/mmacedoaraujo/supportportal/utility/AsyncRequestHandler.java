@@ -0,0 +1,38 @@
+package com.mmacedoaraujo.supportportal.utility;
+
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+public class AsyncRequestHandler {
+
+    private AsyncRequestHandler() {
+    }
+
+    // runs the task on the given executor with the caller's request attributes and security context, so code that relies on
+    // ServletUriComponentsBuilder or the authenticated principal behaves as on the servlet thread.
+    // A saturated executor throws RejectedExecutionException right away, on the servlet thread.
+    public static <T> CompletableFuture<T> supplyAsync(Callable<T> task, Executor executor) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            SecurityContextHolder.setContext(securityContext);
+            try {
+                future.complete(task.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                SecurityContextHolder.clearContext();
+                RequestContextHolder.resetRequestAttributes();
+            }
+        });
+        return future;
+    }
+}
@@ -0,0 +1,58 @@
+package com.mmacedoaraujo.supportportal.utility;
+
+import com.mmacedoaraujo.supportportal.exception.domain.InvalidCursorException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+import static com.mmacedoaraujo.supportportal.constant.UserServiceImplConstant.INVALID_CURSOR;
+
+// Position in the change feed: the modification sequence and id of the last change returned. Rows that predate the
+// sequence all carry 0, the id keeps paging through them stable. Encoded opaque so clients only ever echo it back.
+public class ChangeFeedCursor {
+
+    public static final ChangeFeedCursor START = new ChangeFeedCursor(-1, -1);
+    private static final int ENCODED_BYTES = 2 * Long.BYTES;
+
+    private final long modificationSeq;
+    private final long id;
+
+    public ChangeFeedCursor(long modificationSeq, long id) {
+        this.modificationSeq = modificationSeq;
+        this.id = id;
+    }
+
+    public long getModificationSeq() {
+        return modificationSeq;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public boolean isBefore(long otherModificationSeq, long otherId) {
+        return modificationSeq < otherModificationSeq || (modificationSeq == otherModificationSeq && id < otherId);
+    }
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES).putLong(modificationSeq).putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public static ChangeFeedCursor decode(String cursor) throws InvalidCursorException {
+        if (cursor == null || cursor.isEmpty()) {
+            return START;
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(INVALID_CURSOR);
+        }
+        if (bytes.length != ENCODED_BYTES) {
+            throw new InvalidCursorException(INVALID_CURSOR);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new ChangeFeedCursor(buffer.getLong(), buffer.getLong());
+    }
+}
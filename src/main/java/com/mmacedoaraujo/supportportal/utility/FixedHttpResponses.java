@@ -0,0 +1,65 @@
+package com.mmacedoaraujo.supportportal.utility;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mmacedoaraujo.supportportal.domain.HttpResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.UncheckedIOException;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Error bodies for fixed messages, built once per second and shared: the timestamp is serialized with second precision,
+// so within a second every response for the same status and message is identical. Only messages that do not embed
+// request data belong here, the entry limit keeps a mistake from growing the map without bound.
+public class FixedHttpResponses {
+
+    private static final int MAX_ENTRIES = 128;
+    private static final long MILLIS_PER_SECOND = 1000;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ConcurrentMap<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    private FixedHttpResponses() {
+    }
+
+    public static ResponseEntity<HttpResponse> responseEntity(HttpStatus httpStatus, String reason, String message) {
+        return getEntry(httpStatus, reason, message).responseEntity;
+    }
+
+    public static byte[] json(HttpStatus httpStatus, String reason, String message) {
+        return getEntry(httpStatus, reason, message).json;
+    }
+
+    private static Entry getEntry(HttpStatus httpStatus, String reason, String message) {
+        long second = System.currentTimeMillis() / MILLIS_PER_SECOND;
+        String key = httpStatus.value() + reason + message;
+        Entry entry = ENTRIES.get(key);
+        if (entry == null || entry.second != second) {
+            entry = new Entry(second, httpStatus, reason, message);
+            if (ENTRIES.size() < MAX_ENTRIES || ENTRIES.containsKey(key)) {
+                ENTRIES.put(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    private static class Entry {
+
+        private final long second;
+        private final ResponseEntity<HttpResponse> responseEntity;
+        private final byte[] json;
+
+        private Entry(long second, HttpStatus httpStatus, String reason, String message) {
+            this.second = second;
+            HttpResponse httpResponse = new HttpResponse(httpStatus.value(), new Date(second * MILLIS_PER_SECOND), httpStatus, reason, message);
+            this.responseEntity = new ResponseEntity<>(httpResponse, httpStatus);
+            try {
+                this.json = OBJECT_MAPPER.writeValueAsBytes(httpResponse);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
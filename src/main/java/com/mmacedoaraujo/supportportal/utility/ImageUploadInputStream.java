@@ -0,0 +1,75 @@
+package com.mmacedoaraujo.supportportal.utility;
+
+import com.google.common.io.ByteStreams;
+import com.mmacedoaraujo.supportportal.enumeration.ImageFormat;
+import com.mmacedoaraujo.supportportal.exception.domain.ImageTooLargeException;
+import com.mmacedoaraujo.supportportal.exception.domain.NotAnImageFileException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+
+import static com.mmacedoaraujo.supportportal.constant.FileConstant.IMAGE_TOO_LARGE;
+import static com.mmacedoaraujo.supportportal.constant.FileConstant.NOT_AN_IMAGE_FILE;
+import static com.mmacedoaraujo.supportportal.enumeration.ImageFormat.MAX_SIGNATURE_LENGTH;
+
+public class ImageUploadInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+    private final ImageFormat format;
+    private long count;
+
+    public ImageUploadInputStream(InputStream inputStream, long maxBytes) throws IOException, NotAnImageFileException {
+        super(new PushbackInputStream(inputStream, MAX_SIGNATURE_LENGTH));
+        this.maxBytes = maxBytes;
+        byte[] header = new byte[MAX_SIGNATURE_LENGTH];
+        int length = ByteStreams.read(in, header, 0, header.length);
+        ((PushbackInputStream) in).unread(header, 0, length);
+        this.format = ImageFormat.fromHeader(header, length);
+        if (format == null) {
+            throw new NotAnImageFileException(NOT_AN_IMAGE_FILE);
+        }
+    }
+
+    public ImageFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long n) throws ImageTooLargeException {
+        count += n;
+        if (count > maxBytes) {
+            throw new ImageTooLargeException(IMAGE_TOO_LARGE + maxBytes);
+        }
+    }
+}
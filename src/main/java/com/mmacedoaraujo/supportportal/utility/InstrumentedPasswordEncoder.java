@@ -0,0 +1,68 @@
+package com.mmacedoaraujo.supportportal.utility;
+
+import com.mmacedoaraujo.supportportal.jfr.PasswordEncoderEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.*;
+
+public class InstrumentedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Timer mismatchTimer;
+
+    public InstrumentedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = passwordTimer("encode", SUCCESS, meterRegistry);
+        this.matchTimer = passwordTimer("matches", "match", meterRegistry);
+        this.mismatchTimer = passwordTimer("matches", "mismatch", meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        PasswordEncoderEvent event = new PasswordEncoderEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String encodedPassword = delegate.encode(rawPassword);
+        encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        commit(event, "encode", SUCCESS);
+        return encodedPassword;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordEncoderEvent event = new PasswordEncoderEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        (matches ? matchTimer : mismatchTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        commit(event, "matches", matches ? "match" : "mismatch");
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static void commit(PasswordEncoderEvent event, String operation, String outcome) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setOperation(operation);
+            event.setOutcome(outcome);
+            event.commit();
+        }
+    }
+
+    private static Timer passwordTimer(String operation, String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder(PASSWORD_ENCODER_METRIC)
+                .tag(OPERATION_TAG, operation)
+                .tag(OUTCOME_TAG, outcome)
+                .register(meterRegistry);
+    }
+}
@@ -4,8 +4,8 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.mmacedoaraujo.supportportal.domain.UserPrincipal;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -29,6 +29,9 @@ public class JWTTokenProvider {
 
     @Value("${jwt.secret}")
     private String secret;
+    // both are immutable and thread safe, built on first use instead of once per call
+    private volatile Algorithm algorithm;
+    private volatile JWTVerifier verifier;
 
     public String generateJwtToken(UserPrincipal userPrincipal) {
         String[] claims = getClaimsFromUser(userPrincipal);
@@ -38,50 +41,53 @@ public class JWTTokenProvider {
                 .withIssuedAt(new Date())
                 .withSubject(userPrincipal.getUsername())
                 .withArrayClaim(AUTHORITIES, claims)
+                .withClaim(TOKEN_EPOCH, userPrincipal.getTokenEpoch())
                 .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .sign(HMAC512(secret.getBytes()));
+                .sign(getAlgorithm());
     }
 
-    public List<GrantedAuthority> getAuthorities(String token) {
-        String[] claims = getClaimsFromToken(token);
+    // checks signature, issuer and expiry once, the getters read the decoded claims without verifying again
+    public DecodedJWT verify(String token) {
+        return getJWTVerifier().verify(token);
+    }
+
+    public List<GrantedAuthority> getAuthorities(DecodedJWT decodedJWT) {
+        String[] claims = decodedJWT.getClaim(AUTHORITIES).asArray(String.class);
         return stream(claims).map(SimpleGrantedAuthority::new).collect(Collectors.toList());
     }
 
+    // tokens issued before epochs existed carry none and count as epoch 0
+    public long getTokenEpoch(DecodedJWT decodedJWT) {
+        Long epoch = decodedJWT.getClaim(TOKEN_EPOCH).asLong();
+        return epoch == null ? 0 : epoch;
+    }
+
     public Authentication getAuthentication(String username, List<GrantedAuthority> authorities, HttpServletRequest request) {
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(username, null, authorities);
         authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
         return authenticationToken;
     }
 
-    public boolean isTokenValid(String username, String token) {
-        JWTVerifier verifier = getJWTVerifier();
-        return StringUtils.isNotEmpty(username) && isTokenExpired(verifier, token);
-    }
-
-    public String getSubject(String token) {
-        JWTVerifier verifier = getJWTVerifier();
-        return verifier.verify(token).getSubject();
-    }
-
-    private boolean isTokenExpired(JWTVerifier verifier, String token) {
-        Date expiration = verifier.verify(token).getExpiresAt();
-        return expiration.after(new Date());
-    }
-
-    private String[] getClaimsFromToken(String token) {
-        JWTVerifier verifier = getJWTVerifier();
-        return verifier.verify(token).getClaim(AUTHORITIES).asArray(String.class);
+    private JWTVerifier getJWTVerifier() {
+        JWTVerifier jwtVerifier = verifier;
+        if (jwtVerifier == null) {
+            try {
+                jwtVerifier = JWT.require(getAlgorithm()).withIssuer(MMACEDOARAUJO_LLC).build();
+            } catch (JWTVerificationException exception) {
+                throw new JWTVerificationException(TOKEN_CANNOT_BE_VERIFIED);
+            }
+            verifier = jwtVerifier;
+        }
+        return jwtVerifier;
     }
 
-    private JWTVerifier getJWTVerifier() {
-        JWTVerifier verifier;
-        try {
-            Algorithm algorithm = Algorithm.HMAC512(secret);
-            verifier = JWT.require(algorithm).withIssuer(MMACEDOARAUJO_LLC).build();
-        } catch (JWTVerificationException exception) {
-            throw new JWTVerificationException(TOKEN_CANNOT_BE_VERIFIED);
+    private Algorithm getAlgorithm() {
+        Algorithm hmacAlgorithm = algorithm;
+        if (hmacAlgorithm == null) {
+            hmacAlgorithm = HMAC512(secret.getBytes());
+            algorithm = hmacAlgorithm;
         }
-        return verifier;
+        return hmacAlgorithm;
     }
 
     private String[] getClaimsFromUser(UserPrincipal userPrincipal) {
@@ -0,0 +1,176 @@
+package com.mmacedoaraujo.supportportal.utility;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.DATASOURCE_REPLICA_HEALTHY_METRIC;
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.DATASOURCE_ROUTE_METRIC;
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.ROUTE_TAG;
+
+// Sends read-only transactions to the replica and everything else to the primary. It must sit behind a
+// LazyConnectionDataSourceProxy: the transaction manager asks for a connection before it marks the transaction read only,
+// the proxy defers the real lookup to the first statement.
+// Clients that committed a write within the lag tolerance keep reading from the primary, and an unreachable replica
+// sends all reads to the primary until the next successful health check.
+// Metrics are bound as a MeterBinder: the registry itself depends on every DataSource bean for the pool metrics.
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final Cache<String, Boolean> recentWriters;
+    private final int healthCheckTimeoutSeconds;
+    private final LongAdder primaryRoutes = new LongAdder();
+    private final LongAdder replicaRoutes = new LongAdder();
+    private final LongAdder readYourWritesRoutes = new LongAdder();
+    private final LongAdder fallbackRoutes = new LongAdder();
+    private volatile boolean replicaHealthy = true;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, long lagToleranceMillis, long maxWriters,
+                                      int healthCheckTimeoutSeconds) {
+        this.primary = primary;
+        this.replica = replica;
+        this.recentWriters = CacheBuilder.newBuilder()
+                .maximumSize(maxWriters)
+                .expireAfterWrite(lagToleranceMillis, TimeUnit.MILLISECONDS)
+                .build();
+        this.healthCheckTimeoutSeconds = healthCheckTimeoutSeconds;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        targets.put(REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        bindRouteCounter("primary", primaryRoutes, meterRegistry);
+        bindRouteCounter("replica", replicaRoutes, meterRegistry);
+        bindRouteCounter("read-your-writes", readYourWritesRoutes, meterRegistry);
+        bindRouteCounter("fallback", fallbackRoutes, meterRegistry);
+        Gauge.builder(DATASOURCE_REPLICA_HEALTHY_METRIC, this, dataSource -> dataSource.isReplicaHealthy() ? 1 : 0).register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriterOnCommit();
+            primaryRoutes.increment();
+            return PRIMARY;
+        }
+        if (!replicaHealthy) {
+            fallbackRoutes.increment();
+            return PRIMARY;
+        }
+        String client = getClient();
+        if (client != null && recentWriters.getIfPresent(client) != null) {
+            readYourWritesRoutes.increment();
+            return PRIMARY;
+        }
+        replicaRoutes.increment();
+        return REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target != replica) {
+            return target.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            markReplicaUnhealthy(e);
+            return primary.getConnection();
+        }
+    }
+
+    public boolean isReplicaHealthy() {
+        return replicaHealthy;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.routing.health-check-millis:5000}")
+    public void checkReplica() {
+        try (Connection connection = replica.getConnection()) {
+            if (!connection.isValid(healthCheckTimeoutSeconds)) {
+                throw new SQLException("Replica connection is not valid");
+            }
+            if (!replicaHealthy) {
+                log.info("Replica is reachable again, routing read-only transactions to it");
+            }
+            replicaHealthy = true;
+        } catch (SQLException e) {
+            markReplicaUnhealthy(e);
+        }
+    }
+
+    private void markReplicaUnhealthy(SQLException e) {
+        if (replicaHealthy) {
+            log.warn("Replica is unreachable, routing read-only transactions to the primary: {}", e.getMessage());
+        }
+        replicaHealthy = false;
+    }
+
+    private void rememberWriterOnCommit() {
+        String client = getClient();
+        if (client == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(recentWriters)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(recentWriters, client);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(client, Boolean.TRUE);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(recentWriters);
+            }
+        });
+    }
+
+    // the authenticated user, or the client address for anonymous calls such as login and register
+    private static String getClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return authentication.getName();
+        }
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes instanceof ServletRequestAttributes) {
+            return ((ServletRequestAttributes) requestAttributes).getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+
+    private static void bindRouteCounter(String route, LongAdder routes, MeterRegistry meterRegistry) {
+        FunctionCounter.builder(DATASOURCE_ROUTE_METRIC, routes, LongAdder::sum).tag(ROUTE_TAG, route).register(meterRegistry);
+    }
+}
@@ -0,0 +1,89 @@
+package com.mmacedoaraujo.supportportal.utility;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.*;
+
+// Coalesces concurrent loads of the same key: the first caller runs the load, callers arriving while it is in flight
+// wait for it and get its result or its failure. A load is forgotten as soon as it completes, so nothing is cached and
+// a caller arriving afterwards always starts a fresh one; a joining caller can still see data read just before its
+// own call, which only suits lookups where that is acceptable.
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+    private final Counter leaderCounter;
+    private final Counter coalescedCounter;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.leaderCounter = Counter.builder(SINGLE_FLIGHT_METRIC).tag(FLIGHT_TAG, name).tag(OUTCOME_TAG, "leader").register(meterRegistry);
+        this.coalescedCounter = Counter.builder(SINGLE_FLIGHT_METRIC).tag(FLIGHT_TAG, name).tag(OUTCOME_TAG, "coalesced").register(meterRegistry);
+    }
+
+    // runs the load on the calling thread, or blocks until the one in flight completes
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalescedCounter.increment();
+            return join(existing);
+        }
+        leaderCounter.increment();
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            land(key, flight, null, e);
+            throw e;
+        }
+        land(key, flight, value, null);
+        return value;
+    }
+
+    // the load starts asynchronous work; callers joining it get the same future and never block
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalescedCounter.increment();
+            return existing;
+        }
+        leaderCounter.increment();
+        try {
+            loader.get().whenComplete((value, e) -> land(key, flight, value, e));
+        } catch (RuntimeException | Error e) {
+            land(key, flight, null, e);
+            throw e;
+        }
+        return flight;
+    }
+
+    // removed before completing, so no caller can join a load whose result is already out
+    private void land(K key, CompletableFuture<V> flight, V value, Throwable failure) {
+        flights.remove(key, flight);
+        if (failure != null) {
+            flight.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+        } else {
+            flight.complete(value);
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
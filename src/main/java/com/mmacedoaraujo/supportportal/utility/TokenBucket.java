@@ -0,0 +1,35 @@
+package com.mmacedoaraujo.supportportal.utility;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket kept as a single theoretical arrival time (GCRA): each take pushes it one refill interval further, and a
+// take is refused while it would sit more than a full bucket ahead of now. One CAS per take, no lock and no refill thread.
+public class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+    private final long refillIntervalNanos;
+    private final long burstNanos;
+
+    public TokenBucket(int capacity, long refillInterval, TimeUnit unit) {
+        this.refillIntervalNanos = unit.toNanos(refillInterval);
+        this.burstNanos = refillIntervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(System.nanoTime() - burstNanos);
+    }
+
+    // returns 0 when a token was taken, otherwise the nanoseconds until one will be available
+    public long tryTake() {
+        while (true) {
+            long now = System.nanoTime();
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival - now, 0) + now + refillIntervalNanos;
+            long ahead = next - now;
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.mmacedoaraujo.supportportal.utility;
+
+import com.mmacedoaraujo.supportportal.domain.User;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+// Entity tags for user representations. A single user is identified by its id and JPA version. The list uses the
+// highest modification sequence and the row count: every stamped write raises the maximum and every delete lowers the
+// count, which the per row version cannot guarantee. Both tags are weak, since the same user or list is served as JSON
+// or Smile and compressed or not; the list tag also names the selected fields, since a sparse fieldset is a different list.
+// If-Match compares weakly: the id and version identify the stored user exactly, whatever encoding the client read.
+public class UserETags {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private UserETags() {
+    }
+
+    public static String of(User user) {
+        return WEAK_PREFIX + opaqueTag(user);
+    }
+
+    public static String ofList(long maxModificationSeq, long count, List<String> fields) {
+        return WEAK_PREFIX + "\"" + maxModificationSeq + "-" + count + (fields.isEmpty() ? "" : "-" + String.join(".", fields)) + "\"";
+    }
+
+    public static boolean matches(String ifMatch, User user) {
+        String etag = opaqueTag(user);
+        for (String candidate : StringUtils.commaDelimitedListToStringArray(ifMatch)) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals(ANY) || (trimmed.startsWith(WEAK_PREFIX) ? trimmed.substring(WEAK_PREFIX.length()) : trimmed).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(User user) {
+        return "\"" + user.getId() + "-" + user.getVersion() + "\"";
+    }
+}
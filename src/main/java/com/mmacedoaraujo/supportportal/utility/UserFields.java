@@ -0,0 +1,62 @@
+package com.mmacedoaraujo.supportportal.utility;
+
+import com.google.common.collect.ImmutableMap;
+import com.mmacedoaraujo.supportportal.exception.domain.InvalidFieldException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.mmacedoaraujo.supportportal.constant.UserServiceImplConstant.INVALID_FIELD;
+
+// The user properties a client can pick with ?fields=, by their JSON name, mapped to the entity attribute each one is
+// selected from. Write only and ignored properties are not listed, so a sparse fieldset never exposes more than the
+// full representation does.
+public class UserFields {
+
+    private static final Map<String, String> ATTRIBUTES = ImmutableMap.<String, String>builder()
+            .put("id", "id")
+            .put("userId", "userId")
+            .put("firstName", "firstName")
+            .put("lastName", "lastName")
+            .put("username", "username")
+            .put("profileImageUrl", "profileImageUrl")
+            .put("lastLoginDate", "lastLoginDate")
+            .put("lastLoginDateDisplay", "lastLoginDateDisplay")
+            .put("joinDate", "joinDate")
+            .put("role", "role")
+            .put("authorities", "authorities")
+            .put("nonLocked", "isNonLocked")
+            .put("enabled", "isEnabled")
+            .build();
+
+    private UserFields() {
+    }
+
+    // the requested fields in declaration order, so the same set always selects and serializes the same way;
+    // empty when no fields were requested
+    public static List<String> parse(String fields) throws InvalidFieldException {
+        if (StringUtils.isBlank(fields)) {
+            return Collections.emptyList();
+        }
+        Set<String> requested = new HashSet<>();
+        for (String field : StringUtils.split(fields, ',')) {
+            String trimmed = field.trim();
+            if (!trimmed.isEmpty()) {
+                if (!ATTRIBUTES.containsKey(trimmed)) {
+                    throw new InvalidFieldException(INVALID_FIELD + trimmed);
+                }
+                requested.add(trimmed);
+            }
+        }
+        return ATTRIBUTES.keySet().stream().filter(requested::contains).collect(Collectors.toList());
+    }
+
+    public static String attributeOf(String field) {
+        return ATTRIBUTES.get(field);
+    }
+}
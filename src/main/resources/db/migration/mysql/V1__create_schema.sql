@@ -0,0 +1,24 @@
+create table hibernate_sequence (
+    next_val bigint
+) engine=InnoDB;
+
+insert into hibernate_sequence values (1);
+
+create table users_tb (
+    id bigint not null,
+    authorities tinyblob,
+    email varchar(255),
+    first_name varchar(255),
+    is_enabled bit not null,
+    is_non_locked bit not null,
+    join_date datetime(6),
+    last_login_date datetime(6),
+    last_login_date_display datetime(6),
+    last_name varchar(255),
+    password varchar(255),
+    profile_image_url varchar(255),
+    role varchar(255),
+    user_id varchar(255),
+    username varchar(255),
+    primary key (id)
+) engine=InnoDB;
@@ -0,0 +1 @@
+alter table users_tb add column token_epoch bigint not null default 0;
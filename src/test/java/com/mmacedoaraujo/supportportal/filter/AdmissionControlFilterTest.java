@@ -0,0 +1,41 @@
+package com.mmacedoaraujo.supportportal.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.ADMISSION_IN_FLIGHT_METRIC;
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.ENDPOINT_CLASS_TAG;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdmissionControlFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(new MockEnvironment(), 2.0, 100, meterRegistry);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/users/login", "/users/login/", "/users/%6Cogin", "/users//login", "/users/login;jsessionid=1", "/login"})
+    void everySpellingOfTheLoginPathIsAdmittedAsAuthentication(String requestUri) throws Exception {
+        assertEquals(1.0, inFlightDuring(requestUri));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/users/list", "/users/login/other", "/actuator/health"})
+    void otherPathsAreNotThrottled(String requestUri) throws Exception {
+        assertEquals(0.0, inFlightDuring(requestUri));
+    }
+
+    // the permits held by the authentication class while the rest of the chain runs
+    private double inFlightDuring(String requestUri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", requestUri);
+        AtomicReference<Double> inFlight = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) ->
+                inFlight.set(meterRegistry.get(ADMISSION_IN_FLIGHT_METRIC).tag(ENDPOINT_CLASS_TAG, "authentication").gauge().value()));
+        return inFlight.get();
+    }
+}
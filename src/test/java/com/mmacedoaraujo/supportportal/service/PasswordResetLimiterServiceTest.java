@@ -0,0 +1,73 @@
+package com.mmacedoaraujo.supportportal.service;
+
+import com.mmacedoaraujo.supportportal.domain.HttpResponse;
+import com.mmacedoaraujo.supportportal.exception.ExceptionHandling;
+import com.mmacedoaraujo.supportportal.exception.domain.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.DECISION_TAG;
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.PASSWORD_RESET_LIMIT_METRIC;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PasswordResetLimiterServiceTest {
+
+    private static final int EMAIL_CAPACITY = 2;
+    private static final long EMAIL_REFILL_SECONDS = 600;
+    private static final int CLIENT_CAPACITY = 3;
+    private static final long CLIENT_REFILL_SECONDS = 60;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordResetLimiterService limiter = new PasswordResetLimiterService(
+            EMAIL_CAPACITY, EMAIL_REFILL_SECONDS, CLIENT_CAPACITY, CLIENT_REFILL_SECONDS, 1000, meterRegistry);
+
+    @Test
+    void emailIsLimitedAcrossClientsAndCaseInsensitive() throws TooManyRequestsException {
+        limiter.acquire("user@example.com", "10.0.0.1");
+        limiter.acquire("USER@example.com", "10.0.0.2");
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class, () -> limiter.acquire("user@example.com", "10.0.0.3"));
+        assertEquals(EMAIL_REFILL_SECONDS, exception.getRetryAfterSeconds());
+        assertEquals(1, decisions("email-limited"));
+        limiter.acquire("other@example.com", "10.0.0.3");
+    }
+
+    @Test
+    void clientIsCheckedFirstAndItsRejectionSparesTheEmailBucket() throws TooManyRequestsException {
+        limiter.acquire("a@example.com", "10.0.0.1");
+        limiter.acquire("b@example.com", "10.0.0.1");
+        limiter.acquire("c@example.com", "10.0.0.1");
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class, () -> limiter.acquire("d@example.com", "10.0.0.1"));
+        assertEquals(CLIENT_REFILL_SECONDS, exception.getRetryAfterSeconds());
+        assertEquals(1, decisions("client-limited"));
+        assertEquals(0, decisions("email-limited"));
+        // the refused request took no token from d@example.com, both of its own are still there
+        limiter.acquire("d@example.com", "10.0.0.2");
+        limiter.acquire("d@example.com", "10.0.0.3");
+    }
+
+    @Test
+    void emailRejectionStillSpendsTheClientToken() throws TooManyRequestsException {
+        limiter.acquire("a@example.com", "10.0.0.1");
+        limiter.acquire("a@example.com", "10.0.0.1");
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire("a@example.com", "10.0.0.1"));
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class, () -> limiter.acquire("b@example.com", "10.0.0.1"));
+        assertEquals(CLIENT_REFILL_SECONDS, exception.getRetryAfterSeconds());
+        assertEquals(1, decisions("email-limited"));
+        assertEquals(1, decisions("client-limited"));
+    }
+
+    @Test
+    void rejectionIsAnswered429WithRetryAfterInWholeSeconds() {
+        ResponseEntity<HttpResponse> response = new ExceptionHandling().tooManyRequestsException(new TooManyRequestsException("slow down", 42));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("42", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    private double decisions(String decision) {
+        return meterRegistry.get(PASSWORD_RESET_LIMIT_METRIC).tag(DECISION_TAG, decision).counter().count();
+    }
+}
@@ -0,0 +1,72 @@
+package com.mmacedoaraujo.supportportal.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ThumbnailServiceTest {
+
+    private static final long MAX_PIXELS = 4_000_000;
+
+    private final ThumbnailService thumbnailService = new ThumbnailService(new ThreadPoolTaskExecutor(), MAX_PIXELS);
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void imageDeclaringTooManyPixelsIsRejectedBeforeDecoding() throws IOException {
+        Path image = folder.resolve("huge.png");
+        Files.write(image, pngHeader(30000, 30000));
+        assertNull(thumbnailService.read(image));
+    }
+
+    @Test
+    void largeImageIsSubsampledWhileDecoding() throws IOException {
+        Path image = folder.resolve("large.png");
+        ImageIO.write(new BufferedImage(1600, 1200, BufferedImage.TYPE_INT_RGB), "png", image.toFile());
+        BufferedImage decoded = thumbnailService.read(image);
+        assertEquals(800, decoded.getWidth());
+        assertEquals(600, decoded.getHeight());
+    }
+
+    @Test
+    void smallImageIsDecodedAtFullSize() throws IOException {
+        Path image = folder.resolve("small.png");
+        ImageIO.write(new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB), "png", image.toFile());
+        BufferedImage decoded = thumbnailService.read(image);
+        assertEquals(300, decoded.getWidth());
+        assertEquals(200, decoded.getHeight());
+    }
+
+    // a PNG signature and IHDR chunk only, a few dozen bytes claiming a bitmap of several gigabytes
+    private static byte[] pngHeader(int width, int height) throws IOException {
+        ByteArrayOutputStream ihdr = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(ihdr);
+        data.write("IHDR".getBytes(StandardCharsets.US_ASCII));
+        data.writeInt(width);
+        data.writeInt(height);
+        data.write(new byte[]{8, 2, 0, 0, 0});
+        CRC32 crc = new CRC32();
+        crc.update(ihdr.toByteArray());
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(png);
+        out.write(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'});
+        out.writeInt(13);
+        out.write(ihdr.toByteArray());
+        out.writeInt((int) crc.getValue());
+        return png.toByteArray();
+    }
+}
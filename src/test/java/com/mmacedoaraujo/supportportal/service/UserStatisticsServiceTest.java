@@ -0,0 +1,96 @@
+package com.mmacedoaraujo.supportportal.service;
+
+import com.mmacedoaraujo.supportportal.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.List;
+
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.USER_STATISTICS_DRIFT_METRIC;
+import static com.mmacedoaraujo.supportportal.enumeration.Role.ROLE_USER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserStatisticsServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void committedWriteWhoseDeltaIsNotAppliedYetIsNotCountedTwice() {
+        databaseHolds(1);
+        UserStatisticsService statistics = new UserStatisticsService(userRepository, meterRegistry);
+        statistics.initialize();
+        assertEquals(1, statistics.getStatistics().getTotal());
+
+        // the new user is committed and seen by the reconciliation before the after commit step has run
+        TransactionSynchronizationManager.initSynchronization();
+        statistics.changed(null, newUser());
+        databaseHolds(2);
+        statistics.reconcile();
+        assertEquals(1, statistics.getStatistics().getTotal());
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(2, statistics.getStatistics().getTotal());
+        statistics.reconcile();
+        assertEquals(2, statistics.getStatistics().getTotal());
+        assertEquals(0, drift());
+    }
+
+    @Test
+    void rolledBackWriteReleasesItsKeysForTheNextReconciliation() {
+        databaseHolds(1);
+        UserStatisticsService statistics = new UserStatisticsService(userRepository, meterRegistry);
+        statistics.initialize();
+
+        TransactionSynchronizationManager.initSynchronization();
+        statistics.changed(null, newUser());
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(1, statistics.getStatistics().getTotal());
+
+        // a write from another instance, which only the reconciliation picks up
+        databaseHolds(3);
+        statistics.reconcile();
+        assertEquals(3, statistics.getStatistics().getTotal());
+        // total, enabled and the role count were each two short
+        assertEquals(6, drift());
+    }
+
+    private void databaseHolds(long users) {
+        List<Object[]> rows = Collections.singletonList(new Object[]{ROLE_USER.name(), true, true, users});
+        when(userRepository.countByRoleAndStatus()).thenReturn(rows);
+        when(userRepository.countLastLoginsByHour(any())).thenReturn(Collections.emptyList());
+    }
+
+    private static UserStatisticsService.Snapshot newUser() {
+        return new UserStatisticsService.Snapshot(ROLE_USER.name(), true, true, null);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    private double drift() {
+        return meterRegistry.get(USER_STATISTICS_DRIFT_METRIC).counter().count();
+    }
+}
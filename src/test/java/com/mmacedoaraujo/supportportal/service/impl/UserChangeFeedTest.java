@@ -0,0 +1,150 @@
+package com.mmacedoaraujo.supportportal.service.impl;
+
+import com.mmacedoaraujo.supportportal.domain.HttpResponse;
+import com.mmacedoaraujo.supportportal.domain.User;
+import com.mmacedoaraujo.supportportal.domain.UserChange;
+import com.mmacedoaraujo.supportportal.domain.UserChangePage;
+import com.mmacedoaraujo.supportportal.exception.ExceptionHandling;
+import com.mmacedoaraujo.supportportal.exception.domain.InvalidCursorException;
+import com.mmacedoaraujo.supportportal.service.ModificationSequenceService;
+import com.mmacedoaraujo.supportportal.utility.ChangeFeedCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.mmacedoaraujo.supportportal.enumeration.Role.ROLE_USER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// the sequence numbers are only drawn right before commit
+class UserChangeFeedTest extends UserServiceJpaTest {
+
+    @Autowired
+    private ModificationSequenceService modificationSequenceService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void upsertsAndDeletesInterleaveInCommitOrderAcrossPages() throws Exception {
+        for (int i = 1; i <= 6; i++) {
+            createUser("user" + i);
+        }
+        userService.deleteUser(idOf("user2"));
+        changeFirstName("user3", "Changed");
+        userService.deleteUser(idOf("user5"));
+        createUser("user7");
+
+        List<UserChangePage> pages = readAll(null, 2);
+        assertEquals(Arrays.asList("UPSERT user1", "UPSERT user4", "UPSERT user6", "DELETE user2", "UPSERT user3", "DELETE user5", "UPSERT user7"),
+                describe(changesOf(pages)));
+        assertEquals(4, pages.size());
+        for (int i = 0; i < pages.size() - 1; i++) {
+            assertTrue(pages.get(i).isHasMore(), "page " + i);
+        }
+        UserChangePage last = pages.get(pages.size() - 1);
+        assertFalse(last.isHasMore());
+
+        UserChangePage nothingNew = userService.getChanges(last.getCursor(), 2);
+        assertTrue(nothingNew.getChanges().isEmpty());
+        assertEquals(last.getCursor(), nothingNew.getCursor());
+    }
+
+    @Test
+    void userChangedTwiceSinceTheCursorShowsUpOnceAtItsLatestPosition() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            createUser("user" + i);
+        }
+        String cursor = readAll(null, 10).get(0).getCursor();
+        changeFirstName("user1", "First");
+        changeFirstName("user2", "Once");
+        changeFirstName("user1", "Second");
+
+        List<UserChange> changes = userService.getChanges(cursor, 10).getChanges();
+        assertEquals(Arrays.asList("UPSERT user2", "UPSERT user1"), describe(changes));
+        assertEquals("Second", changes.get(1).getUser().getFirstName());
+    }
+
+    @Test
+    void userChangedWhilePagingMovesBehindThePagesStillToCome() throws Exception {
+        for (int i = 1; i <= 4; i++) {
+            createUser("user" + i);
+        }
+        UserChangePage first = userService.getChanges(null, 2);
+        assertEquals(Arrays.asList("UPSERT user1", "UPSERT user2"), describe(first.getChanges()));
+        changeFirstName("user1", "Changed");
+
+        assertEquals(Arrays.asList("UPSERT user3", "UPSERT user4", "UPSERT user1"), describe(changesOf(readAll(first.getCursor(), 2))));
+    }
+
+    @Test
+    void invalidCursorIsABadRequest() {
+        String wrongLength = Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[3]);
+        for (String cursor : Arrays.asList("not a cursor!", wrongLength)) {
+            InvalidCursorException exception = assertThrows(InvalidCursorException.class, () -> userService.getChanges(cursor, 10));
+            ResponseEntity<HttpResponse> response = new ExceptionHandling().invalidCursorException(exception);
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        }
+    }
+
+    @Test
+    void cursorRoundTripsThroughItsEncoding() throws InvalidCursorException {
+        ChangeFeedCursor cursor = ChangeFeedCursor.decode(new ChangeFeedCursor(42, 7).encode());
+        assertEquals(42, cursor.getModificationSeq());
+        assertEquals(7, cursor.getId());
+        assertSame(ChangeFeedCursor.START, ChangeFeedCursor.decode(null));
+        assertSame(ChangeFeedCursor.START, ChangeFeedCursor.decode(""));
+    }
+
+    private void createUser(String username) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User user = User.builder().userId(username).firstName(username).lastName(username).username(username)
+                    .email(username + "@example.com").password("password").joinDate(new Date()).isEnabled(true).isNonLocked(true)
+                    .role(ROLE_USER.name()).authorities(ROLE_USER.getAuthorities()).build();
+            modificationSequenceService.markChanged(userRepository.save(user));
+        });
+    }
+
+    private void changeFirstName(String username, String firstName) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User user = userRepository.findByUsername(username);
+            user.setFirstName(firstName);
+            modificationSequenceService.markChanged(userRepository.save(user));
+        });
+    }
+
+    private Long idOf(String username) {
+        return userRepository.findByUsername(username).getId();
+    }
+
+    private List<UserChangePage> readAll(String cursor, int limit) throws InvalidCursorException {
+        List<UserChangePage> pages = new ArrayList<>();
+        UserChangePage page;
+        do {
+            page = userService.getChanges(cursor, limit);
+            pages.add(page);
+            cursor = page.getCursor();
+        } while (page.isHasMore());
+        return pages;
+    }
+
+    private static List<UserChange> changesOf(List<UserChangePage> pages) {
+        return pages.stream().flatMap(page -> page.getChanges().stream()).collect(Collectors.toList());
+    }
+
+    private static List<String> describe(List<UserChange> changes) {
+        return changes.stream().map(change -> change.getType() + " " + change.getUsername()).collect(Collectors.toList());
+    }
+}
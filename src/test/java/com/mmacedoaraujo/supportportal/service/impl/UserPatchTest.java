@@ -0,0 +1,111 @@
+package com.mmacedoaraujo.supportportal.service.impl;
+
+import com.mmacedoaraujo.supportportal.domain.HttpResponse;
+import com.mmacedoaraujo.supportportal.domain.User;
+import com.mmacedoaraujo.supportportal.domain.UserPatch;
+import com.mmacedoaraujo.supportportal.exception.ExceptionHandling;
+import com.mmacedoaraujo.supportportal.exception.domain.PreconditionFailedException;
+import com.mmacedoaraujo.supportportal.utility.UserETags;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static com.mmacedoaraujo.supportportal.enumeration.Role.ROLE_ADMIN;
+import static com.mmacedoaraujo.supportportal.enumeration.Role.ROLE_USER;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// the statements Hibernate sends are recorded to check which columns a patch writes
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.mmacedoaraujo.supportportal.service.impl.UserPatchTest$RecordingStatementInspector")
+class UserPatchTest extends UserServiceJpaTest {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void createUser() {
+        userRepository.save(User.builder().userId("0000000001").firstName("Jane").lastName("Doe").username("jane")
+                .email("jane@example.com").password("password").joinDate(new Date()).isEnabled(true).isNonLocked(true)
+                .role(ROLE_USER.name()).authorities(ROLE_USER.getAuthorities()).build());
+        STATEMENTS.clear();
+    }
+
+    @Test
+    void onlyTheChangedColumnsAreWritten() throws Exception {
+        userService.patchUser("jane", UserPatch.builder().lastName("Smith").build(), null);
+
+        List<String> updates = updates();
+        assertEquals(1, updates.size());
+        assertEquals(Arrays.asList("last_name", "modification_seq", "version"), setColumns(updates.get(0)));
+        User stored = userRepository.findByUsername("jane");
+        assertEquals("Smith", stored.getLastName());
+        assertEquals("Jane", stored.getFirstName());
+        assertEquals(1, stored.getVersion());
+    }
+
+    @Test
+    void patchChangingNothingIssuesNoUpdateAndKeepsTheETag() throws Exception {
+        String etag = UserETags.of(userRepository.findByUsername("jane"));
+
+        User patched = userService.patchUser("jane", UserPatch.builder().firstName("Jane").enabled(true).role("role_user").build(), etag);
+
+        assertEquals(Collections.emptyList(), updates());
+        assertEquals(etag, UserETags.of(patched));
+        assertEquals(etag, UserETags.of(userRepository.findByUsername("jane")));
+    }
+
+    @Test
+    void rolePatchAlsoWritesTheAuthoritiesOfTheRole() throws Exception {
+        userService.patchUser("jane", UserPatch.builder().role("role_admin").build(), null);
+
+        User stored = userRepository.findByUsername("jane");
+        assertEquals(ROLE_ADMIN.name(), stored.getRole());
+        assertArrayEquals(ROLE_ADMIN.getAuthorities(), stored.getAuthorities());
+        assertTrue(setColumns(updates().get(0)).containsAll(Arrays.asList("role", "authorities")));
+    }
+
+    @Test
+    void staleIfMatchIsAPreconditionFailure() throws Exception {
+        String etag = UserETags.of(userRepository.findByUsername("jane"));
+        userService.patchUser("jane", UserPatch.builder().lastName("Smith").build(), etag);
+        STATEMENTS.clear();
+
+        PreconditionFailedException exception = assertThrows(PreconditionFailedException.class,
+                () -> userService.patchUser("jane", UserPatch.builder().lastName("Brown").build(), etag));
+        ResponseEntity<HttpResponse> response = new ExceptionHandling().preconditionFailedException(exception);
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+        assertEquals(Collections.emptyList(), updates());
+        assertEquals("Smith", userRepository.findByUsername("jane").getLastName());
+    }
+
+    private static List<String> updates() {
+        return STATEMENTS.stream().filter(sql -> sql.startsWith("update users_tb")).collect(Collectors.toList());
+    }
+
+    // "update users_tb set a=?, b=? where ..." gives [a, b]
+    private static List<String> setColumns(String update) {
+        String assignments = update.substring(update.indexOf(" set ") + " set ".length(), update.indexOf(" where "));
+        return Arrays.stream(assignments.split(",")).map(assignment -> assignment.split("=")[0].trim()).collect(Collectors.toList());
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase());
+            return sql;
+        }
+    }
+}
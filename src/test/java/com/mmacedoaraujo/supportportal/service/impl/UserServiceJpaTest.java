@@ -0,0 +1,67 @@
+package com.mmacedoaraujo.supportportal.service.impl;
+
+import com.mmacedoaraujo.supportportal.domain.User;
+import com.mmacedoaraujo.supportportal.repository.UserRepository;
+import com.mmacedoaraujo.supportportal.service.EmailService;
+import com.mmacedoaraujo.supportportal.service.ImageCacheService;
+import com.mmacedoaraujo.supportportal.service.ImageStoreService;
+import com.mmacedoaraujo.supportportal.service.LoginAttemptService;
+import com.mmacedoaraujo.supportportal.service.ModificationSequenceService;
+import com.mmacedoaraujo.supportportal.service.ThumbnailService;
+import com.mmacedoaraujo.supportportal.service.TokenEpochService;
+import com.mmacedoaraujo.supportportal.service.UserStatisticsService;
+import com.mmacedoaraujo.supportportal.utility.SingleFlight;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// UserServiceImpl against H2 migrated with db/migration/h2, everything around it mocked; tests do not run in a
+// transaction of their own, so every write commits for real and the tables are emptied after each test
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:users;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UserServiceImpl.class, ModificationSequenceService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+abstract class UserServiceJpaTest {
+
+    @Autowired
+    protected UserServiceImpl userService;
+    @Autowired
+    protected UserRepository userRepository;
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private EmailService emailService;
+    @MockBean
+    private LoginAttemptService loginAttemptService;
+    @MockBean
+    private ThumbnailService thumbnailService;
+    @MockBean
+    private ImageStoreService imageStoreService;
+    @MockBean
+    private ImageCacheService imageCacheService;
+    @MockBean
+    private TokenEpochService tokenEpochService;
+    @MockBean
+    private UserStatisticsService userStatisticsService;
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+    @MockBean(name = "userLookupFlight")
+    private SingleFlight<String, User> userLookupFlight;
+
+    @AfterEach
+    void clearTables() {
+        jdbcTemplate.update("delete from users_tb");
+        jdbcTemplate.update("delete from user_tombstones_tb");
+        jdbcTemplate.update("update modification_sequence_tb set current_value = 0");
+    }
+}
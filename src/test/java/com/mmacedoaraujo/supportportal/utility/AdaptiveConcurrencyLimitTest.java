@@ -0,0 +1,77 @@
+package com.mmacedoaraujo.supportportal.utility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final double TOLERANCE = 2.0;
+    private static final int WINDOW_SIZE = 100;
+
+    @Test
+    void requestsOfOneRoundTripCutTheLimitOnce() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 20, TOLERANCE, WINDOW_SIZE);
+        long start = nanoTimeAfterNow();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        for (int i = 0; i < 3; i++) {
+            limit.release(start, true);
+        }
+        assertEquals(9, limit.getLimit());
+
+        assertTrue(limit.tryAcquire());
+        limit.release(nanoTimeAfterNow(), true);
+        assertEquals(8, limit.getLimit());
+    }
+
+    @Test
+    void busyLimitGrowsByOneOverLimitPerSample() {
+        // 4 + 1/4 + 1/4.25 + 1/4.49 + 1/4.71 stays below 5, the fifth sample crosses it
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 20, TOLERANCE, WINDOW_SIZE);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        for (int sample = 1; sample <= 5; sample++) {
+            limit.release(System.nanoTime(), false);
+            assertTrue(limit.tryAcquire());
+            assertEquals(sample < 5 ? 4 : 5, limit.getLimit(), "after sample " + sample);
+        }
+    }
+
+    @Test
+    void idleLimitDoesNotGrow() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 20, TOLERANCE, WINDOW_SIZE);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(System.nanoTime(), false);
+        }
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    void cutsStopAtTheMinimumLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(3, 2, 20, TOLERANCE, WINDOW_SIZE);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(nanoTimeAfterNow(), true);
+        }
+        assertEquals(2, limit.getLimit());
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+    }
+
+    // a start strictly after every cut made so far, which is what separates one round trip from the next
+    private static long nanoTimeAfterNow() {
+        long now = System.nanoTime();
+        long next;
+        do {
+            next = System.nanoTime();
+        } while (next == now);
+        return next;
+    }
+}
@@ -0,0 +1,122 @@
+package com.mmacedoaraujo.supportportal.utility;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String NODE_QUERY = "select name from node";
+    private static final long LAG_TOLERANCE_MILLIS = 60000;
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+
+    @BeforeEach
+    void createDatabases() {
+        primary = embeddedDatabase("primary");
+        replica = embeddedDatabase("replica");
+    }
+
+    @AfterEach
+    void shutdownDatabases() {
+        SecurityContextHolder.clearContext();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        TestRouting routing = new TestRouting(replica);
+        assertEquals("replica", routing.read());
+        assertEquals("primary", routing.write());
+    }
+
+    @Test
+    void clientThatJustWroteReadsFromThePrimary() {
+        TestRouting routing = new TestRouting(replica);
+        authenticate("writer");
+        routing.write();
+        assertEquals("primary", routing.read());
+        authenticate("someone-else");
+        assertEquals("replica", routing.read());
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() {
+        ReadWriteRoutingDataSource routingDataSource = routingDataSource(new DriverManagerDataSource("jdbc:h2:tcp://127.0.0.1:1/unreachable"));
+        TestRouting routing = new TestRouting(routingDataSource);
+        assertEquals("primary", routing.read());
+        assertFalse(routingDataSource.isReplicaHealthy());
+        routingDataSource.checkReplica();
+        assertFalse(routingDataSource.isReplicaHealthy());
+        assertEquals("primary", routing.read());
+    }
+
+    private ReadWriteRoutingDataSource routingDataSource(DataSource replicaDataSource) {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary, replicaDataSource, LAG_TOLERANCE_MILLIS,
+                100, 1);
+        routingDataSource.afterPropertiesSet();
+        return routingDataSource;
+    }
+
+    private static EmbeddedDatabase embeddedDatabase(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("create table node (name varchar(16))");
+        jdbcTemplate.update("insert into node values (?)", name);
+        return database;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, AuthorityUtils.NO_AUTHORITIES));
+    }
+
+    private class TestRouting {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate readOnly;
+        private final TransactionTemplate readWrite;
+
+        private TestRouting(DataSource replicaDataSource) {
+            this(routingDataSource(replicaDataSource));
+        }
+
+        private TestRouting(ReadWriteRoutingDataSource routingDataSource) {
+            DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.readOnly = new TransactionTemplate(transactionManager);
+            this.readOnly.setReadOnly(true);
+            this.readWrite = new TransactionTemplate(transactionManager);
+        }
+
+        private String read() {
+            return readOnly.execute(status -> jdbcTemplate.queryForObject(NODE_QUERY, String.class));
+        }
+
+        private String write() {
+            return readWrite.execute(status -> {
+                jdbcTemplate.update("update node set name = name");
+                return jdbcTemplate.queryForObject(NODE_QUERY, String.class);
+            });
+        }
+    }
+}
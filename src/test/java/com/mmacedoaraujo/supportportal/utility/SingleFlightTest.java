@@ -0,0 +1,84 @@
+package com.mmacedoaraujo.supportportal.utility;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.mmacedoaraujo.supportportal.constant.MetricsConstant.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                    loads.incrementAndGet();
+                    awaitQuietly(release);
+                    return "value";
+                })));
+            }
+            while (coalesced() < CALLERS - 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("value", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals("fresh value", singleFlight.execute("key", () -> "fresh value"));
+    }
+
+    @Test
+    void joinedCallersGetTheFailureAndTheNextCallLoadsAgain() {
+        CompletableFuture<String> load = new CompletableFuture<>();
+        CompletableFuture<String> leader = singleFlight.executeAsync("key", () -> load);
+        CompletableFuture<String> follower = singleFlight.executeAsync("key", () -> CompletableFuture.completedFuture("other"));
+        assertSame(leader, follower);
+        IllegalStateException failure = new IllegalStateException("load failed");
+        load.completeExceptionally(failure);
+        assertTrue(follower.isCompletedExceptionally());
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("key", () -> {
+            throw failure;
+        }));
+        assertEquals("loaded", singleFlight.execute("key", () -> "loaded"));
+        assertEquals(1, coalesced());
+    }
+
+    private double coalesced() {
+        return meterRegistry.get(SINGLE_FLIGHT_METRIC).tag(FLIGHT_TAG, "test").tag(OUTCOME_TAG, "coalesced").counter().count();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.mmacedoaraujo.supportportal.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final int CAPACITY = 5;
+    private static final long REFILL_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    @Test
+    void fullBucketAllowsABurstOfCapacityThenRefusesForOneRefillInterval() {
+        TokenBucket bucket = new TokenBucket(CAPACITY, 60, TimeUnit.SECONDS);
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(0, bucket.tryTake(), "take " + i);
+        }
+        long wait = bucket.tryTake();
+        assertTrue(wait > REFILL_NANOS - TimeUnit.SECONDS.toNanos(1) && wait <= REFILL_NANOS, "wait " + wait);
+        long secondWait = bucket.tryTake();
+        assertTrue(secondWait > 0 && secondWait <= wait, "a refused take must not push the bucket further ahead");
+    }
+
+    @Test
+    void bucketRefillsOneTokenPerInterval() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(2, 50, TimeUnit.MILLISECONDS);
+        assertEquals(0, bucket.tryTake());
+        assertEquals(0, bucket.tryTake());
+        long wait = bucket.tryTake();
+        assertTrue(wait > 0);
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(0, bucket.tryTake());
+        assertTrue(bucket.tryTake() > 0);
+    }
+}
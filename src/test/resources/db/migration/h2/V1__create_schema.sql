@@ -0,0 +1,20 @@
+create sequence hibernate_sequence start with 1 increment by 1;
+
+create table users_tb (
+    id bigint not null,
+    authorities varbinary(255),
+    email varchar(255),
+    first_name varchar(255),
+    is_enabled boolean not null,
+    is_non_locked boolean not null,
+    join_date timestamp,
+    last_login_date timestamp,
+    last_login_date_display timestamp,
+    last_name varchar(255),
+    password varchar(255),
+    profile_image_url varchar(255),
+    role varchar(255),
+    user_id varchar(255),
+    username varchar(255),
+    primary key (id)
+);
@@ -0,0 +1,10 @@
+create table image_blobs_tb (
+    hash varchar(64) not null,
+    created_date timestamp,
+    reference_count integer not null,
+    released_date timestamp,
+    size bigint not null,
+    primary key (hash)
+);
+
+alter table users_tb add column profile_image_hash varchar(255);
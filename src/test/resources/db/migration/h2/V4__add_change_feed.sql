@@ -0,0 +1,22 @@
+create table modification_sequence_tb (
+    id integer not null,
+    current_value bigint not null,
+    primary key (id)
+);
+
+insert into modification_sequence_tb values (1, 0);
+
+create table user_tombstones_tb (
+    id bigint not null,
+    user_id bigint not null,
+    username varchar(255),
+    modification_seq bigint not null,
+    deleted_date timestamp,
+    primary key (id)
+);
+
+create index ix_user_tombstones_tb_modification_seq on user_tombstones_tb (modification_seq, id);
+
+alter table users_tb add column modification_seq bigint not null default 0;
+
+create index ix_users_tb_modification_seq on users_tb (modification_seq, id);
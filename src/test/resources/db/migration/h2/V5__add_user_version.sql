@@ -0,0 +1 @@
+alter table users_tb add column version bigint not null default 0;
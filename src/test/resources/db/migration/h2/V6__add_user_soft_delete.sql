@@ -0,0 +1,3 @@
+alter table users_tb add column deleted_date timestamp;
+
+create index ix_users_tb_deleted_date on users_tb (deleted_date);